@@ -0,0 +1,78 @@
+package com.example.automated_text_processor.benchmarks;
+
+import com.example.automated_text_processor.model.BatchProcessor;
+import com.example.automated_text_processor.model.BatchReport;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Whole-batch throughput over generated corpora. The corpus parameter is
+ * {@code fileCount x fileSize}, from many small files to a few large ones. On a
+ * local disk the virtual mode mostly shows its overhead; run it against a network
+ * mount (point {@code java.io.tmpdir} there) to see the I/O overlap pay off.
+ * A non-zero {@code splitThreshold} processes the 16 MB files as parallel ranges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BatchProcessorBenchmark {
+    @Param({"1000x4096", "100x65536", "4x16777216"})
+    public String corpus;
+
+    @Param({"\\b\\d+\\b"})
+    public String pattern;
+
+    @Param({"#", ""})
+    public String replacement;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public BatchProcessor.ExecutionMode mode;
+
+    @Param({"0", "4194304"})
+    public long splitThreshold;
+
+    private Path inputDir;
+    private Path outputDir;
+    private BatchProcessor batchProcessor;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] shape = corpus.split("x");
+        inputDir = Corpus.directory(Integer.parseInt(shape[0]), Integer.parseInt(shape[1]));
+        outputDir = Files.createTempDirectory("text-processor-output");
+        int threads = Runtime.getRuntime().availableProcessors();
+        batchProcessor = new BatchProcessor(mode, threads, threads * 16);
+        if (splitThreshold > 0) {
+            batchProcessor.setSplitThreshold(splitThreshold);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        batchProcessor.shutdown();
+        Corpus.delete(inputDir);
+        Corpus.delete(outputDir);
+    }
+
+    @Benchmark
+    public BatchReport processDirectory() {
+        return batchProcessor.processDirectory(inputDir.toString(), pattern, replacement, outputDir.toString());
+    }
+}
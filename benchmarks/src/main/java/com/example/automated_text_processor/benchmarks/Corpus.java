@@ -0,0 +1,80 @@
+package com.example.automated_text_processor.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic log-like text for the benchmarks: words, numbers, dates, e-mail
+ * addresses and URLs, so every predefined pattern has something to match.
+ */
+final class Corpus {
+    private static final String[] WORDS = {
+            "error", "warning", "request", "processed", "user", "session", "timeout", "connection",
+            "the", "a", "of", "and", "to", "in", "file", "batch", "pattern", "replace", "search", "Text"
+    };
+
+    private Corpus() {
+    }
+
+    static String text(int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder text = new StringBuilder(length + 128);
+        while (text.length() < length) {
+            text.append(String.format("%04d-%02d-%02d ", 2020 + random.nextInt(5), 1 + random.nextInt(12),
+                    1 + random.nextInt(28)));
+            int words = 5 + random.nextInt(15);
+            for (int i = 0; i < words; i++) {
+                int kind = random.nextInt(20);
+                if (kind == 0) {
+                    text.append("user").append(random.nextInt(1000)).append("@example.com");
+                } else if (kind == 1) {
+                    text.append("https://example.com/item/").append(random.nextInt(100000));
+                } else if (kind < 5) {
+                    text.append(random.nextInt(1_000_000));
+                } else {
+                    text.append(WORDS[random.nextInt(WORDS.length)]);
+                }
+                text.append(i + 1 < words ? ' ' : '\n');
+            }
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+
+    /**
+     * Writes {@code fileCount} files of about {@code fileSize} characters, spread
+     * over a few subdirectories, and returns the root.
+     */
+    static Path directory(int fileCount, int fileSize) throws IOException {
+        Path root = Files.createTempDirectory("text-processor-corpus");
+        for (int i = 0; i < fileCount; i++) {
+            Path dir = Files.createDirectories(root.resolve("dir" + (i % 16)));
+            Files.writeString(dir.resolve("file" + i + ".txt"), text(fileSize, i));
+        }
+        return root;
+    }
+
+    static void delete(Path root) throws IOException {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
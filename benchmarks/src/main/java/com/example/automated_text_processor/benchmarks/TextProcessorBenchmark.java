@@ -0,0 +1,149 @@
+package com.example.automated_text_processor.benchmarks;
+
+import com.example.automated_text_processor.model.TaggedMatch;
+import com.example.automated_text_processor.model.TextProcessor;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextProcessorBenchmark {
+    private static final String EMAIL = "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}";
+    private static final String NUMBER = "\\b\\d+\\b";
+    private static final String LITERAL = "timeout";
+    private static final Map<String, String> PATTERNS = new LinkedHashMap<>();
+
+    static {
+        PATTERNS.put("Email", EMAIL);
+        PATTERNS.put("Number", NUMBER);
+        PATTERNS.put("Date", "\\b\\d{4}-\\d{2}-\\d{2}\\b");
+        PATTERNS.put("URL", "https?://[\\w.-]+(?:\\.[\\w.-]+)+[/#?]?.*");
+        PATTERNS.put("Error", "error");
+        PATTERNS.put("Timeout", "timeout");
+        PATTERNS.put("Session", "session");
+    }
+
+    @Param({"65536", "4194304"})
+    public int textSize;
+
+    private String text;
+    private TextProcessor textProcessor;
+    private Pattern literalPattern;
+    private List<Pattern> compiledPatterns;
+    private int savedParallelReplaceThreshold;
+
+    @Setup
+    public void setUp() {
+        text = Corpus.text(textSize, 42);
+        // Low enough for the 4 MB text to be split, so the parallel replace can be compared
+        savedParallelReplaceThreshold = TextProcessor.getParallelReplaceThreshold();
+        TextProcessor.setParallelReplaceThreshold(1 << 20);
+        textProcessor = new TextProcessor();
+        textProcessor.setText(text);
+        // The baselines compile up front, so they measure matching only, like the pattern cache
+        literalPattern = Pattern.compile(LITERAL);
+        compiledPatterns = PATTERNS.values().stream().map(Pattern::compile).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        TextProcessor.setParallelReplaceThreshold(savedParallelReplaceThreshold);
+    }
+
+    @Benchmark
+    public List<String> searchWithRegex() {
+        return textProcessor.searchWithRegex(EMAIL);
+    }
+
+    @Benchmark
+    public List<String> searchWithLiteral() {
+        return textProcessor.searchWithRegex(LITERAL);
+    }
+
+    /**
+     * The same literal through the regex engine, the baseline for
+     * {@link #searchWithLiteral()}.
+     */
+    @Benchmark
+    public List<String> searchWithLiteralRegexBaseline() {
+        List<String> matches = new ArrayList<>();
+        Matcher matcher = literalPattern.matcher(text);
+        while (matcher.find()) {
+            matches.add(matcher.group());
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public List<TaggedMatch> searchWithPatterns() {
+        return textProcessor.searchWithPatterns(PATTERNS);
+    }
+
+    /**
+     * One plain {@link Matcher} scan per pattern, the baseline for
+     * {@link #searchWithPatterns()}.
+     */
+    @Benchmark
+    public List<String> searchWithPatternsBaseline() {
+        List<String> matches = new ArrayList<>();
+        for (Pattern pattern : compiledPatterns) {
+            Matcher matcher = pattern.matcher(text);
+            while (matcher.find()) {
+                matches.add(matcher.group());
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public String replaceWithRegex() {
+        return textProcessor.replaceWithRegex(NUMBER, "#");
+    }
+
+    @Benchmark
+    public String replaceWithRegexParallel() {
+        return textProcessor.replaceWithRegexParallel(NUMBER, "#");
+    }
+
+    @Benchmark
+    public Map<String, Integer> wordFrequency() {
+        // The instance keeps the analysis of an unchanged text, so count through the static form
+        return TextProcessor.analyze(text).wordFrequency();
+    }
+
+    /**
+     * The original lowercase-copy, regex-split, boxed-merge implementation, kept as
+     * the baseline for the allocation rate of {@link #wordFrequency()}.
+     */
+    @Benchmark
+    public Map<String, Integer> wordFrequencyRegexSplitBaseline() {
+        Map<String, Integer> frequency = new HashMap<>();
+        Arrays.stream(text.toLowerCase().split("\\W+"))
+              .filter(word -> !word.isEmpty())
+              .forEach(word -> frequency.merge(word, 1, Integer::sum));
+        return frequency;
+    }
+}
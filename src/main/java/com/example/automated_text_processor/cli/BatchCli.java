@@ -0,0 +1,329 @@
+package com.example.automated_text_processor.cli;
+
+import com.example.automated_text_processor.model.BatchProcessor;
+import com.example.automated_text_processor.model.BatchReport;
+import com.example.automated_text_processor.model.DirectoryWatcher;
+import com.example.automated_text_processor.model.FileSelector;
+import com.example.automated_text_processor.model.FileSummary;
+import com.example.automated_text_processor.util.LogManager;
+import com.example.automated_text_processor.util.MetricsRegistry;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Headless entry point for batch processing. Only the model and util packages are
+ * touched, so no JavaFX class is ever loaded.
+ *
+ * <pre>
+ * java -cp Automated_text_processor.jar com.example.automated_text_processor.cli.BatchCli \
+ *     --input DIR --output DIR --pattern REGEX [--replacement TEXT] [--threads N]
+ *     [--mode platform|virtual] [--max-in-flight N] [--include RULE]... [--exclude RULE]...
+ * </pre>
+ */
+public final class BatchCli {
+    private static final int DEFAULT_MAX_IN_FLIGHT = 256;
+    private static final String USAGE = """
+            Usage: BatchCli --input DIR --output DIR --pattern REGEX [options]
+              --input DIR          directory to process, searched recursively
+              --output DIR         directory the processed files are written to
+              --pattern REGEX      pattern to search for
+              --replacement TEXT   replacement; without it the matches are written instead
+              --threads N          worker threads (default: available processors)
+              --mode MODE          platform, or virtual to run file I/O on virtual threads
+                                   (default: platform)
+              --max-in-flight N    files queued or in progress at once (default: 256)
+              --include RULE       only process matching files, may be repeated
+                                   (default: *.txt and *.txt.gz; .gz and .zip inputs are decompressed)
+              --exclude RULE       skip matching files, may be repeated
+                                   rules are globs, or glob:... / regex:... patterns
+              --max-size SIZE      skip files larger than SIZE bytes (K, M and G suffixes allowed)
+              --modified-after T   only files modified at or after T (2024-05-01 or an ISO instant)
+              --modified-before T  only files modified before T
+              --max-depth N        deepest level searched; files directly in the input are at level 1
+              --follow-links       follow symbolic links, skipping links that form a loop
+              --walk-threads N     directories listed at once during the walk (default: 1)
+              --split-threshold S  process files of at least S bytes as line-aligned ranges in
+                                   parallel; only for patterns that never match across lines
+              --compress-output    gzip every output file, adding a .gz suffix
+              --incremental        skip files unchanged since the last run into the same output
+              --watch              after the first pass, keep processing files as they change
+                                   until interrupted with Ctrl+C
+              --debounce-ms N      quiet time before a changed file is processed (default: 500)
+              --help               show this message""";
+
+    private String input;
+    private String output;
+    private String pattern;
+    private String replacement = "";
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private BatchProcessor.ExecutionMode mode = BatchProcessor.ExecutionMode.PLATFORM;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private final List<String> includes = new ArrayList<>();
+    private final List<String> excludes = new ArrayList<>();
+    private long maxSize = -1;
+    private Instant modifiedAfter;
+    private Instant modifiedBefore;
+    private FileSelector selector;
+    private int maxDepth = Integer.MAX_VALUE;
+    private boolean followLinks;
+    private int walkThreads = 1;
+    private boolean compressOutput;
+    private long splitThreshold = -1;
+    private boolean incremental;
+    private boolean watch;
+    private long debounceMillis = -1;
+    private final CountDownLatch cleanedUp = new CountDownLatch(1);
+    private final Consumer<Thread> shutdownHooks;
+
+    /**
+     * @param shutdownHooks registers the hook that stops watch mode
+     */
+    BatchCli(Consumer<Thread> shutdownHooks) {
+        this.shutdownHooks = shutdownHooks;
+    }
+
+    public static void main(String[] args) {
+        BatchCli cli = new BatchCli(Runtime.getRuntime()::addShutdownHook);
+        int status = cli.execute(args);
+        // After Ctrl+C in watch mode the JVM is already shutting down, and exit would block
+        if (!cli.watch || status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Runs the command and returns its exit status: 0 on success or when only the
+     * usage was requested, 1 if a file or the run failed and 2 for invalid arguments.
+     */
+    int execute(String[] args) {
+        try {
+            if (!parse(args)) {
+                System.out.println(USAGE);
+                return 0;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+        return run();
+    }
+
+    /**
+     * Returns {@code false} if only the usage was requested.
+     */
+    private boolean parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help") || option.equals("-h")) {
+                return false;
+            }
+            if (option.equals("--follow-links")) {
+                followLinks = true;
+                continue;
+            }
+            if (option.equals("--compress-output")) {
+                compressOutput = true;
+                continue;
+            }
+            if (option.equals("--incremental")) {
+                incremental = true;
+                continue;
+            }
+            if (option.equals("--watch")) {
+                watch = true;
+                continue;
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException(option.startsWith("--")
+                        ? "Missing value for " + option : "Unknown option: " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--input" -> input = value;
+                case "--output" -> output = value;
+                case "--pattern" -> pattern = value;
+                case "--replacement" -> replacement = value;
+                case "--include" -> includes.add(value);
+                case "--exclude" -> excludes.add(value);
+                case "--max-size" -> maxSize = parseSize(option, value);
+                case "--split-threshold" -> splitThreshold = parseSize(option, value);
+                case "--modified-after" -> modifiedAfter = parseTime(option, value);
+                case "--modified-before" -> modifiedBefore = parseTime(option, value);
+                case "--threads" -> threads = parsePositive(option, value);
+                case "--max-in-flight" -> maxInFlight = parsePositive(option, value);
+                case "--walk-threads" -> walkThreads = parsePositive(option, value);
+                case "--debounce-ms" -> debounceMillis = value.equals("0") ? 0 : parsePositive(option, value);
+                case "--max-depth" -> maxDepth = value.equals("0") ? 0 : parsePositive(option, value);
+                case "--mode" -> {
+                    try {
+                        mode = BatchProcessor.ExecutionMode.valueOf(value.toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Unknown mode: " + value);
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        if (input == null || output == null || pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("--input, --output and --pattern are required");
+        }
+        // Compile the rules now so a bad one is reported as a usage error
+        selector = buildSelector();
+        return true;
+    }
+
+    private static int parsePositive(String option, String value) {
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + option + ": " + value);
+        }
+        if (number <= 0) {
+            throw new IllegalArgumentException(option + " must be positive: " + value);
+        }
+        return number;
+    }
+
+    private static long parseSize(String option, String value) {
+        String digits = value;
+        long unit = 1;
+        char suffix = Character.toUpperCase(value.isEmpty() ? ' ' : value.charAt(value.length() - 1));
+        if (suffix == 'K' || suffix == 'M' || suffix == 'G') {
+            digits = value.substring(0, value.length() - 1);
+            unit = suffix == 'K' ? 1L << 10 : suffix == 'M' ? 1L << 20 : 1L << 30;
+        }
+        try {
+            long size = Long.parseLong(digits);
+            if (size < 0) {
+                throw new IllegalArgumentException(option + " must not be negative: " + value);
+            }
+            return Math.multiplyExact(size, unit);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid size for " + option + ": " + value);
+        }
+    }
+
+    /**
+     * Accepts a date, taken as midnight in the local time zone, or an ISO instant.
+     */
+    private static Instant parseTime(String option, String value) {
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant();
+            }
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time for " + option + ": " + value);
+        }
+    }
+
+    private FileSelector buildSelector() {
+        FileSelector.Builder selector = FileSelector.builder();
+        if (includes.isEmpty()) {
+            selector.include("*.txt").include("*.txt.gz");
+        }
+        includes.forEach(selector::include);
+        excludes.forEach(selector::exclude);
+        if (maxSize >= 0) {
+            selector.maxSize(maxSize);
+        }
+        return selector.modifiedAfter(modifiedAfter).modifiedBefore(modifiedBefore).build();
+    }
+
+    private int run() {
+        BatchProcessor batchProcessor = new BatchProcessor(mode, threads, maxInFlight);
+        batchProcessor.setFileSelector(selector);
+        batchProcessor.setMaxDepth(maxDepth);
+        batchProcessor.setFollowLinks(followLinks);
+        batchProcessor.setWalkParallelism(walkThreads);
+        batchProcessor.setCompressOutput(compressOutput);
+        if (splitThreshold > 0) {
+            batchProcessor.setSplitThreshold(splitThreshold);
+        }
+        batchProcessor.setIncremental(incremental);
+        if (debounceMillis >= 0) {
+            batchProcessor.setWatchDebounceMillis(debounceMillis);
+        }
+        AtomicLong completed = new AtomicLong();
+        Consumer<FileSummary> progress =
+                summary -> System.out.println("[" + completed.incrementAndGet() + "] " + describe(summary));
+
+        try {
+            BatchReport report = batchProcessor.processDirectory(input, pattern, replacement, output, progress);
+            double seconds = Math.max(report.durationSeconds(), 1e-9);
+            System.out.printf("Processed %d files (%d unchanged, %d failed, %d unreadable paths skipped), "
+                            + "%d matches in %.2f s: %.1f files/s, %.1f MB/s%n",
+                    report.filesTotal(), report.filesUnchanged(), report.filesFailed(), report.pathsSkipped(),
+                    report.matchCount(), seconds,
+                    report.filesTotal() / seconds, report.bytesIn() / (1024.0 * 1024.0) / seconds);
+            if (!watch) {
+                return report.filesFailed() == 0 ? 0 : 1;
+            }
+            watch(batchProcessor, progress);
+            return 0;
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            System.err.println("Batch processing failed: " + cause);
+            return 1;
+        } catch (IOException e) {
+            System.err.println("Cannot watch " + input + ": " + e);
+            return 1;
+        } finally {
+            batchProcessor.shutdown();
+            MetricsRegistry.getInstance().report();
+            LogManager.getInstance().flush();
+            cleanedUp.countDown();
+        }
+    }
+
+    /**
+     * Processes changed files until the JVM is asked to shut down. The shutdown hook
+     * stops the watcher and then waits for this thread to finish the cleanup in
+     * {@link #run()}, which would otherwise be cut short by the exit.
+     */
+    private void watch(BatchProcessor batchProcessor, Consumer<FileSummary> progress) throws IOException {
+        DirectoryWatcher watcher = batchProcessor.watchDirectory(input, pattern, replacement, output, progress);
+        CountDownLatch stopped = new CountDownLatch(1);
+        shutdownHooks.accept(new Thread(() -> {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                System.err.println("Error stopping watcher: " + e);
+            }
+            stopped.countDown();
+            try {
+                cleanedUp.await(60, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "batch-cli-shutdown"));
+        System.out.println("Watching " + input + " for changes, press Ctrl+C to stop");
+
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("Stopped watching " + input);
+    }
+
+    private static String describe(FileSummary summary) {
+        if (!summary.isSuccess()) {
+            return summary.path() + ": Error: " + summary.error();
+        }
+        return String.format("%s: %d matches, %d -> %d bytes, %.1f ms", summary.path(),
+                summary.matchCount(), summary.bytesIn(), summary.bytesOut(), summary.durationMillis());
+    }
+}
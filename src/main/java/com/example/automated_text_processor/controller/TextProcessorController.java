@@ -2,7 +2,11 @@ package com.example.automated_text_processor.controller;
 
 import com.example.automated_text_processor.model.TextProcessor;
 import com.example.automated_text_processor.model.BatchProcessor;
+import com.example.automated_text_processor.model.BatchReport;
+import com.example.automated_text_processor.model.FileSummary;
+import com.example.automated_text_processor.model.TaggedMatch;
 import com.example.automated_text_processor.util.LogManager;
+import com.example.automated_text_processor.util.PatternCache;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.FileChooser;
@@ -11,6 +15,11 @@ import javafx.stage.DirectoryChooser;
 import java.io.*;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.nio.file.Files;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextFlow;
@@ -30,6 +39,8 @@ public class TextProcessorController {
     @FXML
     private Button replaceButton;
     @FXML
+    private Button searchAllButton;
+    @FXML
     private Button loadFileButton;
     @FXML
     private Button saveFileButton;
@@ -76,6 +87,7 @@ public class TextProcessorController {
     private void setupEventHandlers() {
         searchButton.setOnAction(e -> performSearch());
         replaceButton.setOnAction(e -> performReplace());
+        searchAllButton.setOnAction(e -> performSearchAll());
         loadFileButton.setOnAction(e -> loadFile());
         saveFileButton.setOnAction(e -> saveFile());
         batchProcessButton.setOnAction(e -> processBatch());
@@ -108,33 +120,63 @@ public class TextProcessorController {
             String replacement = replacementField.getText();
 
             if (pattern != null && !pattern.isEmpty()) {
+                // Results are written as each file finishes, so the output directory is needed up front
+                DirectoryChooser outputChooser = new DirectoryChooser();
+                outputChooser.setTitle("Select Output Directory");
+                File outputDir = outputChooser.showDialog(stage);
+                if (outputDir == null) {
+                    statusLabel.setText("Batch processing cancelled");
+                    return;
+                }
+
                 new Thread(() -> {
                     try {
                         Platform.runLater(() -> {
-                            progressBar.setProgress(0);
+                            progressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
                             statusLabel.setText("Processing files...");
                         });
-                        Map<String, String> results = batchProcessor.processDirectory(
+                        // Files finish on the worker threads; the status update is coalesced so
+                        // a large tree does not flood the FX thread with one event per file
+                        Queue<FileSummary> results = new ConcurrentLinkedQueue<>();
+                        AtomicLong completed = new AtomicLong();
+                        AtomicBoolean statusPending = new AtomicBoolean();
+                        BatchReport report = batchProcessor.processDirectory(
                                 directory.getPath(),
                                 pattern,
-                                replacement
+                                replacement,
+                                outputDir.getPath(),
+                                summary -> {
+                                    results.add(summary);
+                                    completed.incrementAndGet();
+                                    if (statusPending.compareAndSet(false, true)) {
+                                        Platform.runLater(() -> {
+                                            statusPending.set(false);
+                                            statusLabel.setText("Processed " + completed.get() + " files...");
+                                        });
+                                    }
+                                }
                         );
                         Platform.runLater(() -> {
                             StringBuilder output = new StringBuilder();
-                            for (Map.Entry<String, String> entry : results.entrySet()) {
-                                output.append("File: ").append(entry.getKey()).append("\n");
-                                output.append(entry.getValue()).append("\n\n");
+                            for (FileSummary summary : results) {
+                                output.append("File: ").append(summary.path()).append("\n");
+                                if (summary.isSuccess()) {
+                                    output.append(String.format("%d matches, %d -> %d bytes, %.1f ms",
+                                            summary.matchCount(), summary.bytesIn(), summary.bytesOut(),
+                                            summary.durationMillis()));
+                                } else {
+                                    output.append("Error: ").append(summary.error());
+                                }
+                                output.append("\n\n");
                             }
                             outputTextArea.setText(output.toString());
+                            statusLabel.setText(String.format(
+                                    "Batch processing completed: %d files, %d failed, %d paths skipped, "
+                                            + "%d matches in %.1f s",
+                                    report.filesTotal(), report.filesFailed(), report.pathsSkipped(),
+                                    report.matchCount(), report.durationSeconds()));
+                            progressBar.setProgress(1.0);
                         });
-                        DirectoryChooser outputChooser = new DirectoryChooser();
-                        outputChooser.setTitle("Select Output Directory");
-                        File outputDir = outputChooser.showDialog(stage);
-                        if (outputDir != null) {
-                            batchProcessor.saveProcessedFiles(outputDir.getPath());
-                            Platform.runLater(() -> statusLabel.setText("Batch processing completed successfully"));
-                        }
-                        Platform.runLater(() -> progressBar.setProgress(1.0));
                         logManager.logInfo("Batch processing completed for directory: " + directory.getPath());
                     } catch (Exception e) {
                         logManager.logError("Batch processing failed", e);
@@ -192,7 +234,7 @@ public class TextProcessorController {
         String pattern = regexPatternField.getText();
         if (pattern != null && !pattern.isEmpty()) {
             try {
-                long startTime = System.currentTimeMillis();
+                long startTime = System.nanoTime();
                 List<String> matches = textProcessor.searchWithRegex(pattern);
                 outputTextArea.setText(String.join("\n", matches));
                 updateWordFrequency();
@@ -207,6 +249,28 @@ public class TextProcessorController {
         }
     }
 
+    /**
+     * Searches for every predefined pattern at once, listing the matches in text order.
+     */
+    @FXML
+    private void performSearchAll() {
+        try {
+            long startTime = System.nanoTime();
+            List<TaggedMatch> matches = textProcessor.searchWithPatterns(new TreeMap<>(PREDEFINED_PATTERNS));
+            StringBuilder output = new StringBuilder();
+            for (TaggedMatch match : matches) {
+                output.append(match.tag()).append(": ").append(match.value()).append('\n');
+            }
+            outputTextArea.setText(output.toString());
+            logManager.logPerformance("Search all operation", startTime);
+            statusLabel.setText("Found " + matches.size() + " matches for " + PREDEFINED_PATTERNS.size() + " patterns");
+        } catch (Exception e) {
+            logManager.logError("Search all operation failed", e);
+            showError("Search Error", "Search failed: " + e.getMessage());
+            statusLabel.setText("Search failed");
+        }
+    }
+
     private void highlightMatches(String pattern) {
         // Use TextFlow to highlight matches in the input text
         String text = inputTextArea.getText();
@@ -216,7 +280,7 @@ public class TextProcessorController {
             return;
         }
         try {
-            java.util.regex.Pattern regex = java.util.regex.Pattern.compile(pattern);
+            java.util.regex.Pattern regex = PatternCache.getInstance().get(pattern);
             java.util.regex.Matcher matcher = regex.matcher(text);
             int lastEnd = 0;
             while (matcher.find()) {
@@ -242,7 +306,7 @@ public class TextProcessorController {
         String replacement = replacementField.getText();
         if (pattern != null && !pattern.isEmpty()) {
             try {
-                long startTime = System.currentTimeMillis();
+                long startTime = System.nanoTime();
                 String result = textProcessor.replaceWithRegex(pattern, replacement);
                 outputTextArea.setText(result);
                 updateWordFrequency();
@@ -266,11 +330,10 @@ public class TextProcessorController {
         
         if (file != null) {
             try {
-                long startTime = System.currentTimeMillis();
+                long startTime = System.nanoTime();
                 String content = Files.readString(file.toPath());
+                // The text listener hands the content to the processor and refreshes word frequency
                 inputTextArea.setText(content);
-                textProcessor.setText(content);
-                updateWordFrequency();
                 logManager.logPerformance("File load operation", startTime);
                 statusLabel.setText("File loaded successfully");
             } catch (IOException e) {
@@ -291,7 +354,7 @@ public class TextProcessorController {
         
         if (file != null) {
             try {
-                long startTime = System.currentTimeMillis();
+                long startTime = System.nanoTime();
                 Files.writeString(file.toPath(), outputTextArea.getText());
                 logManager.logPerformance("File save operation", startTime);
                 statusLabel.setText("File saved successfully");
@@ -305,7 +368,8 @@ public class TextProcessorController {
 
     private void updateWordFrequency() {
         wordFrequencyList.getItems().clear();
-        Map<String, Integer> frequency = textProcessor.getWordFrequency();
+        // The analysis is kept until the text changes, so repeated updates do not recount
+        Map<String, Integer> frequency = textProcessor.analyze().wordFrequency();
         frequency.entrySet().stream()
                 .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
                 .forEach(entry -> wordFrequencyList.getItems().add(
@@ -0,0 +1,150 @@
+package com.example.automated_text_processor.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over a set of literal strings, finding all of them in one
+ * pass over the text. Each literal's occurrences are reported the way repeated
+ * {@code Matcher.find} calls would report them: leftmost first and without
+ * overlapping each other, while occurrences of different literals may overlap.
+ */
+final class AhoCorasick {
+    @FunctionalInterface
+    interface Handler {
+        void match(int id, int start, int end);
+    }
+
+    private static final int[] NONE = new int[0];
+
+    private final int[] lengths;
+    // Per state, the characters with a transition sorted, and the target states
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] fail;
+    // Per state, the literals ending there, including those of its suffix states
+    private final int[][] outputs;
+    // Transitions from the root for ASCII characters, where most characters fail
+    private final int[] rootAscii = new int[128];
+
+    private AhoCorasick(int[] lengths, char[][] keys, int[][] targets, int[] fail, int[][] outputs) {
+        this.lengths = lengths;
+        this.keys = keys;
+        this.targets = targets;
+        this.fail = fail;
+        this.outputs = outputs;
+        for (char c = 0; c < rootAscii.length; c++) {
+            rootAscii[c] = child(keys, targets, 0, c);
+        }
+    }
+
+    /**
+     * @param literals non-empty strings; a literal's index is the id it is reported with
+     */
+    static AhoCorasick build(List<String> literals) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(new ArrayList<>());
+        int[] lengths = new int[literals.size()];
+        for (int id = 0; id < literals.size(); id++) {
+            String literal = literals.get(id);
+            if (literal.isEmpty()) {
+                throw new IllegalArgumentException("Literal must not be empty");
+            }
+            lengths[id] = literal.length();
+            int state = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                Integer next = trie.get(state).get(literal.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(new ArrayList<>());
+                    trie.get(state).put(literal.charAt(i), next);
+                }
+                state = next;
+            }
+            ends.get(state).add(id);
+        }
+
+        int states = trie.size();
+        char[][] keys = new char[states][];
+        int[][] targets = new int[states][];
+        for (int state = 0; state < states; state++) {
+            TreeMap<Character, Integer> children = trie.get(state);
+            keys[state] = new char[children.size()];
+            targets[state] = new int[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> child : children.entrySet()) {
+                keys[state][i] = child.getKey();
+                targets[state][i++] = child.getValue();
+            }
+        }
+
+        // Breadth first, so a state's failure target is complete before its children's
+        int[] fail = new int[states];
+        int[][] outputs = new int[states][];
+        outputs[0] = NONE;
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            outputs[child] = ends.get(child).stream().mapToInt(Integer::intValue).toArray();
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            for (int i = 0; i < keys[state].length; i++) {
+                char c = keys[state][i];
+                int child = targets[state][i];
+                int f = fail[state];
+                while (f != 0 && child(keys, targets, f, c) < 0) {
+                    f = fail[f];
+                }
+                fail[child] = Math.max(child(keys, targets, f, c), 0);
+                int[] own = ends.get(child).stream().mapToInt(Integer::intValue).toArray();
+                int[] inherited = outputs[fail[child]];
+                int[] merged = Arrays.copyOf(own, own.length + inherited.length);
+                System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+                outputs[child] = merged;
+                queue.add(child);
+            }
+        }
+        return new AhoCorasick(lengths, keys, targets, fail, outputs);
+    }
+
+    void search(CharSequence text, Handler handler) {
+        // Where each literal may next start, so its occurrences do not overlap
+        int[] nextStart = new int[lengths.length];
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            while (true) {
+                int next = state == 0 && c < rootAscii.length ? rootAscii[c] : child(keys, targets, state, c);
+                if (next >= 0) {
+                    state = next;
+                    break;
+                }
+                if (state == 0) {
+                    break;
+                }
+                state = fail[state];
+            }
+            for (int id : outputs[state]) {
+                int start = i + 1 - lengths[id];
+                if (start >= nextStart[id]) {
+                    handler.match(id, start, i + 1);
+                    nextStart[id] = i + 1;
+                }
+            }
+        }
+    }
+
+    private static int child(char[][] keys, int[][] targets, int state, char c) {
+        int index = Arrays.binarySearch(keys[state], c);
+        return index >= 0 ? targets[state][index] : -1;
+    }
+}
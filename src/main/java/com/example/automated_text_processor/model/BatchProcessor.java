@@ -1,53 +1,291 @@
 package com.example.automated_text_processor.model;
 
+import com.example.automated_text_processor.util.LatencyHistogram;
 import com.example.automated_text_processor.util.LogManager;
+import com.example.automated_text_processor.util.MetricsRegistry;
+import com.example.automated_text_processor.util.PatternCache;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 public class BatchProcessor {
-    private final TextProcessor textProcessor;
+    /**
+     * How files are scheduled. {@code PLATFORM} runs each file start to finish on a
+     * fixed pool of platform threads. {@code VIRTUAL} gives each file its own virtual
+     * thread, so blocking reads and writes (slow on network filesystems) do not hold
+     * a core, and hands the regex work to a bounded platform pool. Streamed and
+     * memory-mapped files interleave reading with matching and run entirely on that
+     * pool.
+     *
+     * <p>In both modes the bounded pool takes waiting work largest file first, by the
+     * size the directory walk read, so a big file found late in the walk does not
+     * end up running alone after everything else has finished. The order only covers
+     * the files in flight, so a larger in-flight limit brings it closer to a global
+     * largest-first schedule.
+     */
+    public enum ExecutionMode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    private static final long DEFAULT_STREAMING_THRESHOLD = 64L * 1024 * 1024;
+    private static final int DEFAULT_STREAMING_CHUNK_SIZE = 1024 * 1024;
+    private static final int DEFAULT_STREAMING_OVERLAP = 64 * 1024;
+    private static final long DEFAULT_WATCH_DEBOUNCE_MILLIS = 500;
+    private static final int DEFAULT_SPLIT_SIZE = 8 * 1024 * 1024;
+    // Compressed streams default to 512 bytes, far too small for batch throughput
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final String OUTPUT_PREFIX = "processed_";
+
     private final LogManager logManager;
+    private final MetricsRegistry metrics;
+    private final ExecutionMode executionMode;
     private final ExecutorService executorService;
-    private final Map<String, String> processedFiles;
+    private final ExecutorService cpuPool;
+    private final ForkJoinPool splitPool;
+    private final AtomicLong taskSequence = new AtomicLong();
+    private final int maxInFlight;
+    private volatile long streamingThreshold = DEFAULT_STREAMING_THRESHOLD;
+    private volatile int streamingChunkSize = DEFAULT_STREAMING_CHUNK_SIZE;
+    private volatile int streamingOverlap = DEFAULT_STREAMING_OVERLAP;
+    private volatile boolean memoryMappedSearch;
+    private volatile FileSelector fileSelector = FileSelector.DEFAULT;
+    private volatile int maxDepth = Integer.MAX_VALUE;
+    private volatile boolean followLinks;
+    private volatile int walkParallelism = 1;
+    private volatile boolean incremental;
+    private volatile long watchDebounceMillis = DEFAULT_WATCH_DEBOUNCE_MILLIS;
+    private volatile boolean compressOutput;
+    private volatile long splitThreshold = Long.MAX_VALUE;
+    private volatile int splitSize = DEFAULT_SPLIT_SIZE;
 
     public BatchProcessor() {
-        this.textProcessor = new TextProcessor();
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchProcessor(int threads) {
+        this(ExecutionMode.PLATFORM, threads, threads * 2);
+    }
+
+    /**
+     * @param cpuThreads       platform threads doing the regex work
+     * @param maxFilesInFlight how many files may be queued or in progress at once;
+     *                         the directory walk waits while this many are pending
+     */
+    public BatchProcessor(ExecutionMode mode, int cpuThreads, int maxFilesInFlight) {
+        if (cpuThreads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + cpuThreads);
+        }
+        if (maxFilesInFlight <= 0) {
+            throw new IllegalArgumentException("Files in flight must be positive: " + maxFilesInFlight);
+        }
         this.logManager = LogManager.getInstance();
-        this.executorService = Executors.newFixedThreadPool(
-                Runtime.getRuntime().availableProcessors()
-        );
-        this.processedFiles = new ConcurrentHashMap<>();
+        this.metrics = MetricsRegistry.getInstance();
+        this.executionMode = mode;
+        if (mode == ExecutionMode.VIRTUAL) {
+            this.executorService = Executors.newVirtualThreadPerTaskExecutor();
+            this.cpuPool = newPrioritizedPool(cpuThreads);
+        } else {
+            this.executorService = newPrioritizedPool(cpuThreads);
+            this.cpuPool = null;
+        }
+        // Threads are only started once a file is split
+        this.splitPool = new ForkJoinPool(cpuThreads);
+        this.maxInFlight = maxFilesInFlight;
     }
 
-    public Map<String, String> processDirectory(String directoryPath, String regexPattern, String replacement) {
-        long startTime = System.currentTimeMillis();
-        logManager.logInfo("Starting batch processing of directory: " + directoryPath);
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
 
-        try {
-            List<Path> files = Files.walk(Paths.get(directoryPath))
-                    .filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".txt"))
-                    .collect(Collectors.toList());
+    /**
+     * Files of at least this many bytes are streamed to their output file instead
+     * of being loaded into memory.
+     */
+    public void setStreamingThreshold(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Streaming threshold must not be negative: " + bytes);
+        }
+        this.streamingThreshold = bytes;
+    }
 
-            List<Future<Void>> futures = new ArrayList<>();
+    /**
+     * Number of characters read per chunk when streaming a file.
+     */
+    public void setStreamingChunkSize(int chars) {
+        if (chars <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chars);
+        }
+        this.streamingChunkSize = chars;
+    }
 
-            for (Path file : files) {
-                futures.add(executorService.submit(() -> {
-                    processFile(file, regexPattern, replacement);
-                    return null;
-                }));
-            }
+    /**
+     * Number of characters carried over between chunks when streaming. Matches
+     * longer than this may be missed or split where they cross a chunk boundary.
+     */
+    public void setStreamingOverlap(int chars) {
+        if (chars < 0) {
+            throw new IllegalArgumentException("Overlap must not be negative: " + chars);
+        }
+        this.streamingOverlap = chars;
+    }
+
+    /**
+     * When enabled, search-only batches (no replacement) memory-map each input and
+     * run the regex over the mapping directly, leaving repeated scans to the OS page
+     * cache. Only pure ASCII files are mapped; anything else falls back to the
+     * regular decoding path.
+     */
+    public void setMemoryMappedSearch(boolean enabled) {
+        this.memoryMappedSearch = enabled;
+    }
+
+    /**
+     * Chooses the files a batch processes; {@link FileSelector#DEFAULT} selects every
+     * {@code .txt} and {@code .txt.gz} file.
+     */
+    public void setFileSelector(FileSelector selector) {
+        this.fileSelector = Objects.requireNonNull(selector);
+    }
 
-            // Wait for all tasks to complete
-            for (Future<Void> future : futures) {
-                future.get();
+    /**
+     * Deepest directory level searched for input files, the input directory itself
+     * being level 0.
+     */
+    public void setMaxDepth(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Depth must not be negative: " + depth);
+        }
+        this.maxDepth = depth;
+    }
+
+    /**
+     * Whether symbolic links are followed during the walk. Links that lead back to
+     * one of their own ancestors are skipped.
+     */
+    public void setFollowLinks(boolean followLinks) {
+        this.followLinks = followLinks;
+    }
+
+    /**
+     * Number of directories listed at once during the walk; 1, the default, walks
+     * on the calling thread.
+     */
+    public void setWalkParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.walkParallelism = parallelism;
+    }
+
+    /**
+     * When enabled, a manifest in the output directory records the size, mtime and
+     * content hash of every input along with the pattern, replacement and the
+     * settings for splitting and streaming files, and later runs skip inputs whose
+     * entry still matches, keeping their previous output. A file whose mtime
+     * changed but whose size did not is hashed before deciding.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * Plain input files of at least this many bytes are cut at line breaks into
+     * ranges of about {@link #setSplitSize} bytes, which are processed in parallel.
+     * Off by default, as it is only correct for patterns whose matches never span a
+     * line break and that do not look across one.
+     */
+    public void setSplitThreshold(long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Split threshold must be positive: " + bytes);
+        }
+        this.splitThreshold = bytes;
+    }
+
+    public void setSplitSize(int bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Split size must be positive: " + bytes);
+        }
+        this.splitSize = bytes;
+    }
+
+    /**
+     * When enabled, every output file is gzip-compressed and named with a
+     * {@code .gz} suffix.
+     */
+    public void setCompressOutput(boolean compressOutput) {
+        this.compressOutput = compressOutput;
+    }
+
+    public BatchReport processDirectory(String directoryPath, String regexPattern, String replacement,
+                                        String outputDirectory) {
+        return processDirectory(directoryPath, regexPattern, replacement, outputDirectory, null);
+    }
+
+    /**
+     * Processes every included file under {@code directoryPath} and writes each
+     * result to {@code outputDirectory} as soon as its worker finishes, at the same
+     * relative path with the file name prefixed by {@code processed_}. Outputs are
+     * written to a temporary file and renamed into place once complete. Files are
+     * submitted while the tree is still being walked, and the walk waits whenever
+     * the in-flight limit is reached, so neither the list of paths nor the per-file
+     * results are ever held in full. Unreadable directories and entries below the
+     * input directory are skipped and counted in the report.
+     *
+     * <p>Inputs ending in {@code .gz} are decompressed on the fly and written out
+     * without the suffix. A {@code .zip} input is read as a stream of entries, each
+     * processed as a file of its own and written below a directory named after the
+     * archive; every entry is processed whatever its name. Where two inputs would
+     * have the same output, such as {@code a.txt} and {@code a.txt.gz}, the plain
+     * file is written and the compressed one fails.
+     *
+     * @param onFileDone called from the worker threads with each file's summary in
+     *                   completion order, or {@code null}; files an incremental run
+     *                   finds unchanged are only counted in the report
+     */
+    public BatchReport processDirectory(String directoryPath, String regexPattern, String replacement,
+                                        String outputDirectory, Consumer<FileSummary> onFileDone) {
+        long startTime = System.nanoTime();
+        logManager.logInfo("Starting batch processing of directory: " + directoryPath
+                + " (" + executionMode + " threads)");
+
+        try {
+            BatchJob job = newJob(directoryPath, regexPattern, replacement, outputDirectory, onFileDone, false);
+            DirectoryWalker walker = new DirectoryWalker(maxDepth, followLinks, walkParallelism);
+            DirectoryWalker.Stats walkStats = null;
+            try {
+                walkStats = walker.walk(job.root, (file, attrs) -> submit(job, file, attrs, startTime));
+            } finally {
+                // Wait for everything already submitted, also when the walk failed part way
+                job.awaitIdle();
+                if (job.manifest != null) {
+                    // Paths the walk could not read keep their entries for the next run
+                    job.manifest.save(walkStats != null && walkStats.skipped() == 0);
+                }
             }
 
+            if (walkStats.skipped() > 0) {
+                metrics.counter("Batch paths skipped").add(walkStats.skipped());
+                logManager.logInfo("Skipped " + walkStats.skipped() + " unreadable paths under " + job.root);
+            }
             logManager.logPerformance("Batch processing", startTime);
-            return new HashMap<>(processedFiles);
+            return job.totals.toReport(walkStats.skipped(), System.nanoTime() - startTime);
 
         } catch (Exception e) {
             logManager.logError("Error during batch processing", e);
@@ -55,52 +293,692 @@ public class BatchProcessor {
         }
     }
 
-    private void processFile(Path file, String regexPattern, String replacement) {
-        long startTime = System.currentTimeMillis();
-        String fileName = file.getFileName().toString();
+    /**
+     * Events for the same file closer together than this are coalesced in watch
+     * mode, and a file is only processed once it has been quiet this long.
+     */
+    public void setWatchDebounceMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Debounce must not be negative: " + millis);
+        }
+        this.watchDebounceMillis = millis;
+    }
+
+    /**
+     * Starts processing included files under {@code directoryPath} as they are
+     * created or modified, until the returned watcher is closed. Files already
+     * present are left alone; run {@link #processDirectory} first, incrementally,
+     * to catch up with them. Closing the watcher waits for the files in progress
+     * and saves the manifest of an incremental run.
+     *
+     * <p>The number of changes waiting to settle plus files in progress is reported
+     * as the {@code Watch queue depth} gauge, and the time from a file's first
+     * event to its output being written as the {@code Watch lag} histogram.
+     *
+     * @param onFileDone called from the worker threads with each file's summary, or {@code null}
+     */
+    public DirectoryWatcher watchDirectory(String directoryPath, String regexPattern, String replacement,
+                                           String outputDirectory, Consumer<FileSummary> onFileDone)
+            throws IOException {
+        BatchJob job = newJob(directoryPath, regexPattern, replacement, outputDirectory, onFileDone, true);
+        AtomicReference<LongSupplier> queueDepth = new AtomicReference<>();
+        DirectoryWatcher watcher = new DirectoryWatcher(job.root, watchDebounceMillis, followLinks,
+                file -> job.selector.matchesPath(job.root, file),
+                (file, attrs, firstEventNanos) -> submit(job, file, attrs, firstEventNanos),
+                () -> {
+                    job.awaitIdle();
+                    // The gauge holds on to the watcher and the job
+                    metrics.removeGauge("Watch queue depth", queueDepth.get());
+                    if (job.manifest != null) {
+                        try {
+                            // Only changed files were seen, so keep the entries of all the others
+                            job.manifest.save(false);
+                        } catch (IOException e) {
+                            logManager.logError("Error saving manifest for " + job.outputDir, e);
+                        }
+                    }
+                    logManager.logInfo("Stopped watching directory: " + job.root);
+                });
+        queueDepth.set(() -> watcher.getQueueDepth() + job.inProgress());
+        metrics.gauge("Watch queue depth", queueDepth.get());
+        watcher.start();
+        logManager.logInfo("Watching directory: " + directoryPath + " (" + executionMode + " threads)");
+        return watcher;
+    }
+
+    private BatchJob newJob(String directoryPath, String regexPattern, String replacement, String outputDirectory,
+                            Consumer<FileSummary> onFileDone, boolean watch) throws IOException {
+        // Compile up front so an invalid pattern fails once instead of once per file
+        PatternCache.getInstance().get(regexPattern);
+        Path outputDir = Paths.get(outputDirectory);
+        Files.createDirectories(outputDir);
+        FileManifest manifest = incremental ? FileManifest.load(outputDir) : null;
+        String fingerprint = manifest != null
+                ? FileManifest.fingerprint(regexPattern, replacement, compressOutput, layout())
+                : null;
+        return new BatchJob(Paths.get(directoryPath), fileSelector, regexPattern, replacement, outputDir, manifest,
+                fingerprint, compressOutput, maxInFlight, onFileDone, watch);
+    }
+
+    /**
+     * The settings that decide where files are cut into ranges or chunks, for the
+     * manifest fingerprint.
+     */
+    private String layout() {
+        return "split " + splitThreshold + "/" + splitSize + ", stream " + streamingThreshold + "/"
+                + streamingChunkSize + "/" + streamingOverlap;
+    }
+
+    /**
+     * Hands {@code file} to a worker unless it is excluded or an incremental run
+     * finds it unchanged, first waiting while the in-flight limit is reached.
+     *
+     * @param linkAttrs   attributes of {@code file}, not following links
+     * @param queuedNanos when the file became due, for the job's lag histogram
+     */
+    private void submit(BatchJob job, Path file, BasicFileAttributes linkAttrs, long queuedNanos)
+            throws IOException {
+        BasicFileAttributes attrs = linkAttrs;
+        if (linkAttrs.isSymbolicLink()) {
+            // Links to files are included even when links are not followed, as before
+            try {
+                attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException e) {
+                return;
+            }
+        }
+        if (!attrs.isRegularFile() || !job.selector.matches(job.root, file, attrs)) {
+            return;
+        }
+
+        FileManifest manifest = job.manifest;
+        String key = manifest != null ? manifestKey(job.root, file) : null;
+        FileManifest.Entry previous = manifest != null ? manifest.previous(key) : null;
+        if (previous != null && !isReusable(job, previous, attrs)) {
+            previous = null;
+        }
+        if (previous != null && previous.lastModified() == attrs.lastModifiedTime().toMillis()) {
+            manifest.put(key, previous);
+            job.totals.unchanged();
+            return;
+        }
 
+        FileManifest.Entry hashCandidate = previous;
+        BasicFileAttributes fileAttrs = attrs;
         try {
-            String content = Files.readString(file);
-            textProcessor.setText(content);
+            // This blocks a thread of the walker's ForkJoinPool on a parallel walk without
+            // ForkJoinPool.managedBlock. Permits are only released by executorService's
+            // workers, which never wait on the walk, so the walk cannot starve them; and a
+            // compensating thread would only list more directories past the in-flight limit.
+            job.inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while queueing " + file);
+        }
+        try {
+            executorService.execute(new PrioritizedTask<Void>(() -> {
+                try {
+                    if (job.active == null) {
+                        runFile(job, file, key, fileAttrs, hashCandidate, queuedNanos);
+                        return;
+                    }
+                    // A watched file can change again while a worker is on it; that worker
+                    // then goes round once more instead of a second one writing the same output
+                    if (job.active.merge(file, 1, Integer::sum) > 1) {
+                        return;
+                    }
+                    BasicFileAttributes currentAttrs = fileAttrs;
+                    FileManifest.Entry candidate = hashCandidate;
+                    while (true) {
+                        runFile(job, file, key, currentAttrs, candidate, queuedNanos);
+                        if (job.active.compute(file, (path, runs) -> runs == 1 ? null : 1) == null) {
+                            break;
+                        }
+                        candidate = null;
+                        try {
+                            currentAttrs = Files.readAttributes(file, BasicFileAttributes.class);
+                        } catch (IOException e) {
+                            job.active.remove(file);
+                            break;
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    logManager.logError("Error reporting batch progress for: " + file, e);
+                } finally {
+                    job.inFlight.release();
+                }
+            }, fileAttrs.size()));
+        } catch (RejectedExecutionException e) {
+            job.inFlight.release();
+            throw e;
+        }
+    }
+
+    private void runFile(BatchJob job, Path file, String key, BasicFileAttributes attrs,
+                         FileManifest.Entry hashCandidate, long queuedNanos) {
+        if (hashCandidate != null && isSameContent(file, hashCandidate, attrs)) {
+            job.manifest.put(key, new FileManifest.Entry(attrs.size(), attrs.lastModifiedTime().toMillis(),
+                    hashCandidate.contentHash(), hashCandidate.fingerprint(), hashCandidate.output()));
+            job.totals.unchanged();
+            return;
+        }
+        List<FileSummary> summaries = hasSuffix(file.getFileName().toString(), ".zip")
+                ? processArchive(job, file, key, attrs)
+                : List.of(processFile(job, file, key, attrs));
+        if (job.lag != null) {
+            job.lag.recordSince(queuedNanos);
+        }
+        for (FileSummary summary : summaries) {
+            job.totals.add(summary);
+            if (job.onFileDone != null) {
+                job.onFileDone.accept(summary);
+            }
+        }
+    }
+
+    private static String manifestKey(Path root, Path file) {
+        return root.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Whether the output recorded in {@code entry} was made with the current
+     * settings from an input of the same size, and still exists.
+     */
+    private static boolean isReusable(BatchJob job, FileManifest.Entry entry, BasicFileAttributes attrs) {
+        return entry.size() == attrs.size()
+                && entry.fingerprint().equals(job.fingerprint)
+                && Files.exists(job.outputDir.resolve(entry.output()));
+    }
+
+    private static boolean isSameContent(Path file, FileManifest.Entry entry, BasicFileAttributes attrs) {
+        MessageDigest digest = FileManifest.newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            // Let the regular path read it again and report the error
+            return false;
+        }
+        return FileManifest.hex(digest).equals(entry.contentHash());
+    }
 
-            String processedContent;
-            if (replacement != null && !replacement.isEmpty()) {
-                processedContent = textProcessor.replaceWithRegex(regexPattern, replacement);
+    private FileSummary processFile(BatchJob job, Path file, String manifestKey, BasicFileAttributes attrs) {
+        long startTime = System.nanoTime();
+        String fileName = file.getFileName().toString();
+        boolean gzip = hasSuffix(fileName, ".gz");
+        Path outputFile = outputPath(job, file);
+        Path tempFile = tempFile(outputFile);
+        String regexPattern = job.regexPattern;
+        String replacement = job.replacement;
+        MessageDigest digest = job.manifest != null ? FileManifest.newDigest() : null;
+        long bytesIn = 0;
+
+        try {
+            bytesIn = Files.size(file);
+            checkOutputOwner(job, file, outputFile);
+            createParent(outputFile);
+            boolean search = replacement == null || replacement.isEmpty();
+            long matches;
+            long size = bytesIn;
+            if (gzip) {
+                matches = onCpu(() -> processGzip(job, file, tempFile, digest), size);
+            } else if (bytesIn >= splitThreshold) {
+                // The ranges run on the split pool, so this thread only waits
+                matches = splitFile(job, file, tempFile, digest);
             } else {
-                List<String> matches = textProcessor.searchWithRegex(regexPattern);
-                processedContent = String.join("\n", matches);
+                // -1 means the file could not be searched in place and takes the regular path
+                matches = search && memoryMappedSearch
+                        ? onCpu(() -> searchMapped(job, file, tempFile, digest), size)
+                        : -1;
+                if (matches < 0 && bytesIn >= streamingThreshold) {
+                    matches = onCpu(() -> streamFile(job, file, tempFile, digest), size);
+                } else if (matches < 0) {
+                    String content = readString(file, digest);
+                    StringBuilder processedContent = new StringBuilder(content.length());
+                    matches = onCpu(() -> transform(content, regexPattern, replacement, processedContent), size);
+                    writeOutput(job, tempFile, processedContent);
+                }
             }
+            commit(tempFile, outputFile);
+
+            if (digest != null) {
+                job.manifest.put(manifestKey, new FileManifest.Entry(attrs.size(),
+                        attrs.lastModifiedTime().toMillis(), FileManifest.hex(digest), job.fingerprint,
+                        job.outputDir.relativize(outputFile).toString()));
+            }
+            return succeeded(file, outputFile, bytesIn, matches, fileName, startTime);
+
+        } catch (IOException | RuntimeException e) {
+            discard(tempFile);
+            return failed(file, outputFile, bytesIn, fileName, startTime, e);
+        }
+    }
 
-            processedFiles.put(fileName, processedContent);
-            logManager.logPerformance("Processing file: " + fileName, startTime);
+    /**
+     * Processes every entry of a zip archive as a logical file of its own, written
+     * below a directory named after the archive, and returns a summary per entry.
+     * The archive is read once, front to back, without random access.
+     */
+    private List<FileSummary> processArchive(BatchJob job, Path file, String manifestKey, BasicFileAttributes attrs) {
+        long startTime = System.nanoTime();
+        String fileName = file.getFileName().toString();
+        Path outputDir = outputPath(job, file);
+        MessageDigest digest = job.manifest != null ? FileManifest.newDigest() : null;
+        List<FileSummary> summaries = new ArrayList<>();
 
+        try {
+            checkOutputOwner(job, file, outputDir);
         } catch (IOException e) {
-            logManager.logError("Error processing file: " + fileName, e);
-            processedFiles.put(fileName, "Error: " + e.getMessage());
+            return List.of(failed(file, outputDir, attrs.size(), fileName, startTime, e));
         }
+        try (InputStream raw = openInput(file, digest);
+             // ZipInputStream only reads 512 bytes at a time from an unbuffered stream
+             ZipInputStream zip = new ZipInputStream(new BufferedInputStream(raw, IO_BUFFER_SIZE))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (!entry.isDirectory()) {
+                    summaries.add(processEntry(job, file, zip, entry, outputDir));
+                }
+            }
+            if (digest != null) {
+                // The central directory at the end is never read by ZipInputStream
+                raw.transferTo(OutputStream.nullOutputStream());
+                if (summaries.stream().allMatch(FileSummary::isSuccess)) {
+                    job.manifest.put(manifestKey, new FileManifest.Entry(attrs.size(),
+                            attrs.lastModifiedTime().toMillis(), FileManifest.hex(digest), job.fingerprint,
+                            job.outputDir.relativize(outputDir).toString()));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            summaries.add(failed(file, outputDir, attrs.size(), fileName, startTime, e));
+        }
+        return summaries;
     }
 
-    public void saveProcessedFiles(String outputDirectory) {
-        long startTime = System.currentTimeMillis();
-        logManager.logInfo("Saving processed files to: " + outputDirectory);
+    private FileSummary processEntry(BatchJob job, Path archive, ZipInputStream zip, ZipEntry entry, Path outputDir) {
+        long startTime = System.nanoTime();
+        String entryName = entry.getName();
+        Path path = archive;
+        Path outputFile = outputDir;
+        Path tempFile = null;
+        try {
+            Path relative = outputDir.getFileSystem().getPath(entryName).normalize();
+            path = archive.resolve(relative);
+            if (relative.isAbsolute() || relative.startsWith("..") || relative.toString().isEmpty()) {
+                throw new IOException("Archive entry outside the output directory: " + entryName);
+            }
+            outputFile = outputDir.resolve(outputName(job, relative.toString()));
+            createParent(outputFile);
+            Path temp = tempFile = tempFile(outputFile);
+            long matches = onCpu(() -> processStream(job, zip, temp),
+                    Math.max(entry.getSize(), entry.getCompressedSize()));
+            commit(tempFile, outputFile);
+            return succeeded(path, outputFile, Math.max(entry.getCompressedSize(), 0), matches, entryName,
+                    startTime);
+        } catch (IOException | RuntimeException e) {
+            if (tempFile != null) {
+                discard(tempFile);
+            }
+            return failed(path, outputFile, Math.max(entry.getCompressedSize(), 0), entryName, startTime, e);
+        }
+    }
 
+    private FileSummary succeeded(Path path, Path outputFile, long bytesIn, long matches, String name,
+                                  long startTime) throws IOException {
+        long bytesOut = Files.size(outputFile);
+        metrics.counter("Batch files processed").increment();
+        metrics.counter("Batch bytes read").add(bytesIn);
+        metrics.counter("Batch bytes written").add(bytesOut);
+        metrics.counter("Batch matches").add(matches);
+        logManager.logPerformance("Processing file", name, startTime);
+        return new FileSummary(path, outputFile, bytesIn, bytesOut, matches, System.nanoTime() - startTime, null);
+    }
+
+    private FileSummary failed(Path path, Path outputFile, long bytesIn, String name, long startTime, Exception e) {
+        metrics.counter("Batch files failed").increment();
+        logManager.logError("Error processing file: " + name, e);
+        return new FileSummary(path, outputFile, bytesIn, 0, 0, System.nanoTime() - startTime,
+                e.getMessage() != null ? e.getMessage() : e.toString());
+    }
+
+    /**
+     * Runs {@code task} on the CPU pool and waits for it, or in {@code PLATFORM}
+     * mode runs it directly, as the caller is already a pool thread.
+     *
+     * @param size input bytes, so the pool can take the largest waiting task first
+     */
+    private long onCpu(CpuTask task, long size) throws IOException {
+        if (cpuPool == null) {
+            return task.run();
+        }
+        Callable<Long> callable = task::run;
+        PrioritizedTask<Long> future = new PrioritizedTask<>(callable, size);
+        cpuPool.execute(future);
         try {
-            Files.createDirectories(Paths.get(outputDirectory));
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the CPU pool");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Appends the replaced content, or the matches one per line when there is no
+     * replacement, to {@code out} and returns the number of matches.
+     */
+    static long transform(CharSequence content, String regexPattern, String replacement, StringBuilder out) {
+        return transform(content, regexPattern, replacement, out, true);
+    }
+
+    /**
+     * Like {@link #transform(CharSequence, String, String, StringBuilder)} for one
+     * part of a text. Unless {@code last} is set, an empty match at the end of
+     * {@code content} is left to the part that follows, which starts there.
+     */
+    static long transform(CharSequence content, String regexPattern, String replacement, StringBuilder out,
+                          boolean last) {
+        Matcher matcher = PatternCache.getInstance().get(regexPattern).matcher(content);
+        long matches = 0;
+        if (replacement != null && !replacement.isEmpty()) {
+            while (matcher.find()) {
+                if (!last && matcher.start() == content.length()) {
+                    break;
+                }
+                matches++;
+                matcher.appendReplacement(out, replacement);
+            }
+            matcher.appendTail(out);
+        } else {
+            while (matcher.find()) {
+                if (!last && matcher.start() == content.length()) {
+                    break;
+                }
+                if (matches++ > 0) {
+                    out.append('\n');
+                }
+                out.append(content, matcher.start(), matcher.end());
+            }
+        }
+        return matches;
+    }
 
-            for (Map.Entry<String, String> entry : processedFiles.entrySet()) {
-                Path outputFile = Paths.get(outputDirectory, "processed_" + entry.getKey());
-                Files.writeString(outputFile, entry.getValue());
+    /**
+     * Reads {@code file} as UTF-8 like {@link Files#readString(Path)}, feeding the
+     * raw bytes to {@code digest} if there is one.
+     */
+    private static String readString(Path file, MessageDigest digest) throws IOException {
+        if (digest == null) {
+            return Files.readString(file);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        digest.update(bytes);
+        return StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+    }
+
+    /**
+     * Writes the matches of a memory-mapped ASCII file one per line, or returns -1
+     * if the file cannot be mapped that way.
+     */
+    private long searchMapped(BatchJob job, Path file, Path outputFile, MessageDigest digest) throws IOException {
+        MappedCharSequence content = MappedCharSequence.mapAscii(file);
+        if (content == null) {
+            return -1;
+        }
+        if (digest != null) {
+            content.digest(digest);
+        }
+        Matcher matcher = PatternCache.getInstance().get(job.regexPattern).matcher(content);
+        long matches = 0;
+        try (Writer writer = newWriter(job, outputFile)) {
+            while (matcher.find()) {
+                if (matches++ > 0) {
+                    writer.write('\n');
+                }
+                writer.append(content, matcher.start(), matcher.end());
             }
+        }
+        return matches;
+    }
+
+    private long splitFile(BatchJob job, Path file, Path outputFile, MessageDigest digest) throws IOException {
+        metrics.counter("Batch files split").increment();
+        SplitFileProcessor processor = new SplitFileProcessor(job.regexPattern,
+                job.replacement != null && !job.replacement.isEmpty() ? job.replacement : null,
+                splitSize, splitPool);
+        try (Writer writer = newWriter(job, outputFile)) {
+            return processor.process(file, digest, writer);
+        }
+    }
+
+    private long streamFile(BatchJob job, Path file, Path outputFile, MessageDigest digest) throws IOException {
+        try (InputStream in = openInput(file, digest)) {
+            return stream(job, in, outputFile);
+        }
+    }
 
-            logManager.logPerformance("Saving processed files", startTime);
+    private long processGzip(BatchJob job, Path file, Path outputFile, MessageDigest digest) throws IOException {
+        try (InputStream raw = openInput(file, digest);
+             InputStream in = new GZIPInputStream(raw, IO_BUFFER_SIZE)) {
+            long matches = processStream(job, in, outputFile);
+            if (digest != null) {
+                // Anything after the last member, so the hash covers the whole file
+                raw.transferTo(OutputStream.nullOutputStream());
+            }
+            return matches;
+        }
+    }
 
+    /**
+     * Processes a decompressed input, whose size is not known up front: it is read
+     * into memory up to the streaming threshold and streamed if it turns out to be
+     * longer. {@code in} is left open.
+     */
+    private long processStream(BatchJob job, InputStream in, Path outputFile) throws IOException {
+        int limit = (int) Math.min(streamingThreshold, Integer.MAX_VALUE - 8);
+        byte[] head = in.readNBytes(limit);
+        if (head.length < limit) {
+            String content = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(head)).toString();
+            StringBuilder processedContent = new StringBuilder(content.length());
+            long matches = transform(content, job.regexPattern, job.replacement, processedContent);
+            writeOutput(job, outputFile, processedContent);
+            return matches;
+        }
+        // SequenceInputStream closes each stream it finishes, which would end a zip archive early
+        InputStream rest = new FilterInputStream(in) {
+            @Override
+            public void close() {
+            }
+        };
+        return stream(job, new SequenceInputStream(new ByteArrayInputStream(head), rest), outputFile);
+    }
+
+    /**
+     * Streams {@code in} through the pattern into {@code outputFile}, leaving
+     * {@code in} open.
+     */
+    private long stream(BatchJob job, InputStream in, Path outputFile) throws IOException {
+        StreamingRegexProcessor processor = new StreamingRegexProcessor(
+                PatternCache.getInstance().get(job.regexPattern),
+                job.replacement != null && !job.replacement.isEmpty() ? job.replacement : null,
+                streamingChunkSize,
+                streamingOverlap
+        );
+        // A decoder rather than a charset, so malformed input fails as in Files.newBufferedReader
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8.newDecoder());
+        try (Writer writer = newWriter(job, outputFile)) {
+            return processor.process(reader, writer);
+        }
+    }
+
+    private static InputStream openInput(Path file, MessageDigest digest) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        return digest != null ? new DigestInputStream(in, digest) : in;
+    }
+
+    private static Writer newWriter(BatchJob job, Path outputFile) throws IOException {
+        if (!job.compressOutput) {
+            return Files.newBufferedWriter(outputFile);
+        }
+        OutputStream out = Files.newOutputStream(outputFile);
+        try {
+            out = new GZIPOutputStream(out, IO_BUFFER_SIZE);
         } catch (IOException e) {
-            logManager.logError("Error saving processed files", e);
-            throw new RuntimeException("Failed to save processed files", e);
+            out.close();
+            throw e;
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8.newEncoder()), IO_BUFFER_SIZE);
+    }
+
+    private static void writeOutput(BatchJob job, Path outputFile, CharSequence content) throws IOException {
+        if (!job.compressOutput) {
+            Files.writeString(outputFile, content);
+            return;
+        }
+        try (Writer writer = newWriter(job, outputFile)) {
+            writer.append(content);
         }
     }
 
+    /**
+     * The directory under the output directory that mirrors the one holding
+     * {@code file}, so files of the same name in different directories do not
+     * overwrite each other's output.
+     */
+    private static Path outputDirFor(BatchJob job, Path file) {
+        Path parent = job.root.relativize(file).getParent();
+        return parent != null ? job.outputDir.resolve(parent) : job.outputDir;
+    }
+
+    /**
+     * The output file of {@code file}, or for a zip archive the directory its
+     * entries are written below.
+     */
+    private static Path outputPath(BatchJob job, Path file) {
+        String fileName = file.getFileName().toString();
+        if (hasSuffix(fileName, ".zip")) {
+            return outputDirFor(job, file).resolve(OUTPUT_PREFIX + stripSuffix(fileName, ".zip"));
+        }
+        return outputDirFor(job, file).resolve(outputName(job, OUTPUT_PREFIX + stripSuffix(fileName, ".gz")));
+    }
+
+    /**
+     * Fails {@code file} if a sibling the job also processes has the same output,
+     * such as {@code a.txt} and {@code a.txt.gz}, which both become
+     * {@code processed_a.txt}, or {@code x} and the directory for {@code x.zip}.
+     * Renaming would only move the clash onto other names, so the output goes to
+     * the plain file, then to a gzip file, and the other input fails.
+     */
+    private static void checkOutputOwner(BatchJob job, Path file, Path output) throws IOException {
+        int kind = inputKind(file);
+        if (kind == 0) {
+            return;
+        }
+        String name = output.getFileName().toString().substring(OUTPUT_PREFIX.length());
+        List<String> rivals = new ArrayList<>();
+        // The inputs that a plain file and a gzip file would need to have that output
+        String uncompressed = !job.compressOutput ? name
+                : hasSuffix(name, ".gz") ? stripSuffix(name, ".gz") : null;
+        if (uncompressed != null) {
+            rivals.add(uncompressed);
+            rivals.add(uncompressed + ".gz");
+        }
+        for (String rival : rivals) {
+            Path sibling = file.resolveSibling(rival);
+            if (inputKind(sibling) >= kind || !output.equals(outputPath(job, sibling))) {
+                continue;
+            }
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(sibling, BasicFileAttributes.class);
+            } catch (IOException e) {
+                // Missing or unreadable, so it writes no output
+                continue;
+            }
+            if (attrs.isRegularFile() && job.selector.matches(job.root, sibling, attrs)) {
+                throw new IOException("Output " + output + " is already written for " + sibling);
+            }
+        }
+    }
+
+    /**
+     * 0 for a plain file, 1 for a gzip file and 2 for a zip archive.
+     */
+    private static int inputKind(Path file) {
+        String fileName = file.getFileName().toString();
+        return hasSuffix(fileName, ".zip") ? 2 : hasSuffix(fileName, ".gz") ? 1 : 0;
+    }
+
+    private static void createParent(Path outputFile) throws IOException {
+        Path parent = outputFile.getParent();
+        if (!Files.isDirectory(parent)) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    /**
+     * A hidden sibling of {@code outputFile} that the output is written to before
+     * {@link #commit} renames it, so a crash never leaves a partial file under the
+     * real name. The name is unique, so a batch run and a watcher writing the same
+     * output never share a temporary file.
+     */
+    private static Path tempFile(Path outputFile) {
+        return outputFile.resolveSibling("." + outputFile.getFileName() + "."
+                + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+    }
+
+    private static void commit(Path tempFile, Path outputFile) throws IOException {
+        Files.move(tempFile, outputFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void discard(Path tempFile) {
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            logManager.logError("Cannot delete temporary file: " + tempFile, e);
+        }
+    }
+
+    private static String outputName(BatchJob job, String name) {
+        return job.compressOutput ? name + ".gz" : name;
+    }
+
+    private static boolean hasSuffix(String fileName, String suffix) {
+        return fileName.regionMatches(true, fileName.length() - suffix.length(), suffix, 0, suffix.length());
+    }
+
+    private static String stripSuffix(String fileName, String suffix) {
+        return hasSuffix(fileName, suffix) ? fileName.substring(0, fileName.length() - suffix.length()) : fileName;
+    }
+
     public void shutdown() {
+        shutdown(executorService);
+        if (cpuPool != null) {
+            shutdown(cpuPool);
+        }
+        shutdown(splitPool);
+    }
+
+    /**
+     * A fixed pool that takes {@link PrioritizedTask}s from its queue largest first.
+     * Only those may be handed to it.
+     */
+    private static ExecutorService newPrioritizedPool(int threads) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>());
+    }
+
+    private static void shutdown(ExecutorService executorService) {
         executorService.shutdown();
         try {
             if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
@@ -111,4 +989,115 @@ public class BatchProcessor {
             Thread.currentThread().interrupt();
         }
     }
-} 
\ No newline at end of file
+
+    @FunctionalInterface
+    private interface CpuTask {
+        long run() throws IOException;
+    }
+
+    /**
+     * A task ordered by input size, largest first, and by submission among equals.
+     */
+    private final class PrioritizedTask<V> extends FutureTask<V> implements Comparable<PrioritizedTask<?>> {
+        private final long size;
+        private final long sequence = taskSequence.getAndIncrement();
+
+        PrioritizedTask(Callable<V> callable, long size) {
+            super(callable);
+            this.size = size;
+        }
+
+        PrioritizedTask(Runnable runnable, long size) {
+            super(runnable, null);
+            this.size = size;
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask<?> other) {
+            int bySize = Long.compare(other.size, size);
+            return bySize != 0 ? bySize : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * The settings and running totals of one {@code processDirectory} or
+     * {@code watchDirectory} call, shared by its file tasks.
+     */
+    private static final class BatchJob {
+        final Path root;
+        final FileSelector selector;
+        final String regexPattern;
+        final String replacement;
+        final Path outputDir;
+        final FileManifest manifest;
+        final String fingerprint;
+        final boolean compressOutput;
+        final Semaphore inFlight;
+        final int maxInFlight;
+        final BatchTotals totals = new BatchTotals();
+        final Consumer<FileSummary> onFileDone;
+        final LatencyHistogram lag;
+        // Watch mode only: files being processed, with the number of runs requested
+        final ConcurrentHashMap<Path, Integer> active;
+
+        BatchJob(Path root, FileSelector selector, String regexPattern, String replacement, Path outputDir, FileManifest manifest,
+                 String fingerprint, boolean compressOutput, int maxInFlight, Consumer<FileSummary> onFileDone,
+                 boolean watch) {
+            this.root = root;
+            this.selector = selector;
+            this.regexPattern = regexPattern;
+            this.replacement = replacement;
+            this.outputDir = outputDir;
+            this.manifest = manifest;
+            this.fingerprint = fingerprint;
+            this.compressOutput = compressOutput;
+            this.inFlight = new Semaphore(maxInFlight);
+            this.maxInFlight = maxInFlight;
+            this.onFileDone = onFileDone;
+            this.lag = watch ? MetricsRegistry.getInstance().histogram("Watch lag") : null;
+            this.active = watch ? new ConcurrentHashMap<>() : null;
+        }
+
+        int inProgress() {
+            return maxInFlight - inFlight.availablePermits();
+        }
+
+        /**
+         * Waits until every submitted file is done.
+         */
+        void awaitIdle() {
+            inFlight.acquireUninterruptibly(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+    }
+
+    private static final class BatchTotals {
+        private final LongAdder filesProcessed = new LongAdder();
+        private final LongAdder filesUnchanged = new LongAdder();
+        private final LongAdder filesFailed = new LongAdder();
+        private final LongAdder bytesIn = new LongAdder();
+        private final LongAdder bytesOut = new LongAdder();
+        private final LongAdder matches = new LongAdder();
+
+        void unchanged() {
+            filesUnchanged.increment();
+        }
+
+        void add(FileSummary summary) {
+            if (!summary.isSuccess()) {
+                filesFailed.increment();
+                return;
+            }
+            filesProcessed.increment();
+            bytesIn.add(summary.bytesIn());
+            bytesOut.add(summary.bytesOut());
+            matches.add(summary.matchCount());
+        }
+
+        BatchReport toReport(long pathsSkipped, long durationNanos) {
+            return new BatchReport(filesProcessed.sum(), filesUnchanged.sum(), filesFailed.sum(), pathsSkipped,
+                    bytesIn.sum(),
+                    bytesOut.sum(), matches.sum(), durationNanos);
+        }
+    }
+}
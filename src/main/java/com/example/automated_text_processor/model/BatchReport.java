@@ -0,0 +1,23 @@
+package com.example.automated_text_processor.model;
+
+/**
+ * Totals for one batch run. Per-file results are only handed to the caller's
+ * callback as they complete, so the report stays the same size however many
+ * files the batch covered.
+ *
+ * @param filesUnchanged inputs skipped by an incremental run because their previous
+ *                       output is still current
+ * @param pathsSkipped   directories and entries under the input directory that could
+ *                       not be read and were left out of the batch
+ */
+public record BatchReport(long filesProcessed, long filesUnchanged, long filesFailed, long pathsSkipped,
+                          long bytesIn, long bytesOut, long matchCount, long durationNanos) {
+
+    public long filesTotal() {
+        return filesProcessed + filesUnchanged + filesFailed;
+    }
+
+    public double durationSeconds() {
+        return durationNanos / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.automated_text_processor.model;
+
+import com.example.automated_text_processor.util.LogManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Walks a directory tree and hands every non-directory entry to a visitor. Unlike
+ * {@code Files.walk}, an unreadable directory or entry below the root is logged,
+ * counted and skipped instead of aborting the walk; only a failure on the root
+ * itself, or an exception from the visitor, ends it. When links are followed, a
+ * link back to one of its own ancestors is skipped as a loop.
+ *
+ * <p>With a parallelism above 1 each directory is listed as its own task on a
+ * dedicated {@link ForkJoinPool}, which helps on network filesystems where every
+ * listing is a round trip. The visitor must then be thread-safe.
+ */
+final class DirectoryWalker {
+    @FunctionalInterface
+    interface Visitor {
+        void visit(Path file, BasicFileAttributes attrs) throws IOException;
+    }
+
+    /**
+     * @param directories        directories listed
+     * @param files              entries handed to the visitor
+     * @param skippedDirectories directories that could not be listed, in full or in part
+     * @param failedEntries      entries whose attributes could not be read
+     * @param loops              links skipped because they lead back to an ancestor
+     */
+    record Stats(long directories, long files, long skippedDirectories, long failedEntries, long loops) {
+
+        long skipped() {
+            return skippedDirectories + failedEntries + loops;
+        }
+    }
+
+    private final int maxDepth;
+    private final boolean followLinks;
+    private final int parallelism;
+    private final LogManager logManager = LogManager.getInstance();
+
+    private final LongAdder directories = new LongAdder();
+    private final LongAdder files = new LongAdder();
+    private final LongAdder skippedDirectories = new LongAdder();
+    private final LongAdder failedEntries = new LongAdder();
+    private final LongAdder loops = new LongAdder();
+
+    /**
+     * @param maxDepth    deepest level visited, the root being level 0
+     * @param parallelism number of directories listed at once; 1 walks on the calling thread
+     */
+    DirectoryWalker(int maxDepth, boolean followLinks, int parallelism) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Depth must not be negative: " + maxDepth);
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.maxDepth = maxDepth;
+        this.followLinks = followLinks;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Walks the tree under {@code root}. A walker is meant for one walk; its counts
+     * accumulate if it is reused.
+     */
+    Stats walk(Path root, Visitor visitor) throws IOException {
+        if (parallelism == 1) {
+            walkSequential(root, visitor);
+        } else {
+            walkParallel(root, visitor);
+        }
+        return new Stats(directories.sum(), files.sum(), skippedDirectories.sum(), failedEntries.sum(),
+                loops.sum());
+    }
+
+    private void walkSequential(Path root, Visitor visitor) throws IOException {
+        Set<FileVisitOption> options = followLinks ? EnumSet.of(FileVisitOption.FOLLOW_LINKS)
+                : EnumSet.noneOf(FileVisitOption.class);
+        Files.walkFileTree(root, options, maxDepth, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                directories.increment();
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                // Directories at the depth limit are reported here as well
+                if (!attrs.isDirectory()) {
+                    files.increment();
+                    visitor.visit(file, attrs);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                if (file.equals(root)) {
+                    throw exc;
+                }
+                if (exc instanceof FileSystemLoopException) {
+                    loop(file);
+                } else {
+                    // Opening a directory fails here too, as does reading an entry's attributes
+                    failed(file, exc, Files.isDirectory(file, LinkOption.NOFOLLOW_LINKS));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                if (exc != null) {
+                    failed(dir, exc, true);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void walkParallel(Path root, Visitor visitor) throws IOException {
+        BasicFileAttributes rootAttrs = readAttributes(root);
+        if (!rootAttrs.isDirectory() || maxDepth == 0) {
+            if (!rootAttrs.isDirectory()) {
+                files.increment();
+                visitor.visit(root, rootAttrs);
+            }
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new DirectoryTask(root, rootAttrs.fileKey(), 0, null, visitor));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private BasicFileAttributes readAttributes(Path path) throws IOException {
+        if (followLinks) {
+            try {
+                return Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (IOException e) {
+                // A broken link is still visited as the link itself, as walkFileTree does
+            }
+        }
+        return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    private void failed(Path path, IOException e, boolean directory) {
+        if (directory) {
+            skippedDirectories.increment();
+            logManager.logError("Skipping unreadable directory: " + path, e);
+        } else {
+            failedEntries.increment();
+            logManager.logError("Skipping unreadable entry: " + path, e);
+        }
+    }
+
+    private void loop(Path path) {
+        loops.increment();
+        logManager.logInfo("Skipping symbolic link loop: " + path);
+    }
+
+    private final class DirectoryTask extends RecursiveAction {
+        private final Path dir;
+        private final Object fileKey;
+        private final int depth;
+        private final DirectoryTask parent;
+        private final Visitor visitor;
+
+        DirectoryTask(Path dir, Object fileKey, int depth, DirectoryTask parent, Visitor visitor) {
+            this.dir = dir;
+            this.fileKey = fileKey;
+            this.depth = depth;
+            this.parent = parent;
+            this.visitor = visitor;
+        }
+
+        @Override
+        protected void compute() {
+            directories.increment();
+            DirectoryStream<Path> entries;
+            try {
+                entries = Files.newDirectoryStream(dir);
+            } catch (IOException e) {
+                failed(dir, e, true);
+                return;
+            }
+
+            List<DirectoryTask> subdirectories = new ArrayList<>();
+            try (entries) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = readAttributes(entry);
+                    } catch (IOException e) {
+                        failed(entry, e, false);
+                        continue;
+                    }
+                    if (!attrs.isDirectory()) {
+                        files.increment();
+                        visit(entry, attrs);
+                    } else if (depth + 1 < maxDepth) {
+                        if (followLinks && isAncestor(entry, attrs.fileKey())) {
+                            loop(entry);
+                        } else {
+                            subdirectories.add(new DirectoryTask(entry, attrs.fileKey(), depth + 1, this, visitor));
+                        }
+                    }
+                }
+            } catch (DirectoryIteratorException e) {
+                failed(dir, e.getCause(), true);
+            } catch (IOException e) {
+                failed(dir, e, true);
+            }
+            invokeAll(subdirectories);
+        }
+
+        private void visit(Path file, BasicFileAttributes attrs) {
+            try {
+                visitor.visit(file, attrs);
+            } catch (IOException e) {
+                // Unlike a listing failure this ends the walk; walkParallel unwraps it
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private boolean isAncestor(Path entry, Object entryKey) {
+            for (DirectoryTask ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+                if (entryKey != null && ancestor.fileKey != null) {
+                    if (Objects.equals(entryKey, ancestor.fileKey)) {
+                        return true;
+                    }
+                } else {
+                    try {
+                        if (Files.isSameFile(entry, ancestor.dir)) {
+                            return true;
+                        }
+                    } catch (IOException e) {
+                        // Cannot tell; treat it as a new directory
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.automated_text_processor.model;
+
+import com.example.automated_text_processor.util.LogManager;
+import com.example.automated_text_processor.util.MetricsRegistry;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Watches a directory tree and reports files once they have been created or
+ * modified and then left alone for the debounce interval, so a burst of writes to
+ * one file is handled once. New subdirectories are registered as they appear and
+ * the files already in them reported. If the watch service drops events, the whole
+ * tree is rescanned and every file reported.
+ *
+ * <p>All events are handled on one daemon thread, which also calls the handler; a
+ * handler that blocks holds up the queue, which is the intended backpressure.
+ */
+public final class DirectoryWatcher implements Closeable {
+    @FunctionalInterface
+    interface Handler {
+        /**
+         * @param attrs           attributes of {@code file}, not following links
+         * @param firstEventNanos {@link System#nanoTime()} of the first event coalesced
+         *                        into this call
+         */
+        void fileChanged(Path file, BasicFileAttributes attrs, long firstEventNanos) throws IOException;
+    }
+
+    private final Path root;
+    private final long debounceNanos;
+    private final boolean followLinks;
+    private final Predicate<Path> include;
+    private final Handler handler;
+    private final Runnable onClose;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    // Ordered by last event, so the entries due first are at the head
+    private final Map<Path, long[]> pending = new LinkedHashMap<>();
+    private final LogManager logManager = LogManager.getInstance();
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final Thread thread;
+    private volatile int queueDepth;
+    private volatile boolean closed;
+
+    DirectoryWatcher(Path root, long debounceMillis, boolean followLinks, Predicate<Path> include, Handler handler,
+                     Runnable onClose) throws IOException {
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("Debounce must not be negative: " + debounceMillis);
+        }
+        this.root = root;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        this.followLinks = followLinks;
+        this.include = include;
+        this.handler = handler;
+        this.onClose = onClose;
+        this.watchService = root.getFileSystem().newWatchService();
+        try {
+            register(root, false);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+        this.thread = new Thread(this::run, "directory-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        logManager.logInfo("Watching " + directories.size() + " directories under " + root);
+        thread.start();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Number of changed files waiting for their debounce interval to pass.
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Stops watching and waits for the handler to return. Changes still inside
+     * their debounce interval are dropped, as the files may be half written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        watchService.close();
+        if (thread.isAlive() && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        onClose.run();
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                WatchKey key;
+                if (pending.isEmpty()) {
+                    key = watchService.take();
+                } else {
+                    long wait = pending.values().iterator().next()[1] + debounceNanos - System.nanoTime();
+                    key = watchService.poll(Math.max(wait, 0), TimeUnit.NANOSECONDS);
+                }
+                // Drain whatever else is already queued before looking at deadlines
+                while (key != null) {
+                    handleEvents(key);
+                    key = watchService.poll();
+                }
+                dispatchDue();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Closed
+        } catch (IOException | RuntimeException e) {
+            logManager.logError("Directory watcher for " + root + " stopped", e);
+        }
+        if (!pending.isEmpty()) {
+            logManager.logInfo("Directory watcher closed with " + pending.size() + " changes not processed");
+        }
+    }
+
+    private void handleEvents(WatchKey key) throws IOException {
+        Path dir = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            handleEvent(dir, event);
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    /**
+     * Handles one event of the directory {@code dir}, which is {@code null} if the
+     * directory is no longer watched. Only called on the watcher thread, or by tests
+     * before {@link #start()}.
+     */
+    void handleEvent(Path dir, WatchEvent<?> event) throws IOException {
+        metrics.counter("Watch events").increment();
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            metrics.counter("Watch overflows").increment();
+            logManager.logInfo("Watch events overflowed, rescanning " + root);
+            register(root, true);
+            return;
+        }
+        if (dir == null) {
+            return;
+        }
+        Path child = dir.resolve((Path) event.context());
+        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && isDirectory(child)) {
+            // Files may have landed in it before it was registered
+            register(child, true);
+        } else {
+            changed(child);
+        }
+    }
+
+    private void changed(Path file) {
+        if (!include.test(file)) {
+            return;
+        }
+        long now = System.nanoTime();
+        long[] times = pending.remove(file);
+        pending.put(file, new long[] {times != null ? times[0] : now, now});
+        queueDepth = pending.size();
+    }
+
+    /**
+     * Hands the changes whose debounce interval has passed to the handler, on the
+     * same threads as {@link #handleEvent}.
+     */
+    void dispatchDue() throws IOException {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Path, long[]>> entries = pending.entrySet().iterator();
+        while (entries.hasNext() && !closed) {
+            Map.Entry<Path, long[]> entry = entries.next();
+            if (now - entry.getValue()[1] < debounceNanos) {
+                break;
+            }
+            entries.remove();
+            queueDepth = pending.size();
+            Path file = entry.getKey();
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (NoSuchFileException e) {
+                // Deleted or renamed again before it settled
+                continue;
+            } catch (IOException e) {
+                logManager.logError("Cannot read changed file: " + file, e);
+                continue;
+            }
+            handler.fileChanged(file, attrs, entry.getValue()[0]);
+        }
+    }
+
+    private boolean isDirectory(Path path) {
+        return followLinks ? Files.isDirectory(path) : Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    /**
+     * Registers {@code start} and every directory below it, queueing the files found
+     * if {@code queueFiles} is set. Unreadable subdirectories are skipped.
+     */
+    private void register(Path start, boolean queueFiles) throws IOException {
+        Set<FileVisitOption> options = followLinks ? EnumSet.of(FileVisitOption.FOLLOW_LINKS)
+                : EnumSet.noneOf(FileVisitOption.class);
+        Files.walkFileTree(start, options, Integer.MAX_VALUE, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                try {
+                    WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY);
+                    directories.put(key, dir);
+                    return FileVisitResult.CONTINUE;
+                } catch (IOException e) {
+                    return visitFileFailed(dir, e);
+                }
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (queueFiles && !attrs.isDirectory()) {
+                    changed(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                if (file.equals(root)) {
+                    throw exc;
+                }
+                logManager.logError("Not watching unreadable path: " + file, exc);
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+        });
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.automated_text_processor.model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Record of the inputs behind the files in a batch output directory, so a rerun
+ * can skip inputs that have not changed since their output was written. Entries
+ * are keyed by the input's path relative to the input directory and stored one
+ * per line in {@value #FILE_NAME}, which is replaced atomically on save.
+ */
+final class FileManifest {
+    static final String FILE_NAME = ".text-processor-manifest";
+    private static final String HEADER = "# text-processor manifest v1";
+
+    /**
+     * @param contentHash SHA-256 of the input bytes, in hex
+     * @param fingerprint {@link #fingerprint} of the pattern and replacement used
+     * @param output      the output file, relative to the output directory
+     */
+    record Entry(long size, long lastModified, String contentHash, String fingerprint, String output) {
+    }
+
+    private final Path file;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    private FileManifest(Path file, Map<String, Entry> previous) {
+        this.file = file;
+        this.previous = previous;
+    }
+
+    /**
+     * Reads the manifest in {@code outputDir}. A missing manifest is empty, and
+     * lines that cannot be parsed are dropped, which only means their inputs are
+     * processed again.
+     */
+    static FileManifest load(Path outputDir) throws IOException {
+        Path file = outputDir.resolve(FILE_NAME);
+        Map<String, Entry> entries = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 6) {
+                    continue;
+                }
+                try {
+                    entries.put(unescape(fields[5]), new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                            fields[2], fields[3], unescape(fields[4])));
+                } catch (IllegalArgumentException e) {
+                    // Corrupt line; the input is treated as new
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // First run into this output directory
+        }
+        return new FileManifest(file, entries);
+    }
+
+    /**
+     * Returns the entry recorded for {@code key} by the previous run, or {@code null}.
+     */
+    Entry previous(String key) {
+        return previous.get(key);
+    }
+
+    /**
+     * Records the state of an input for this run. Safe to call from several threads.
+     */
+    void put(String key, Entry entry) {
+        current.put(key, entry);
+    }
+
+    /**
+     * Writes the entries recorded in this run. After an incomplete run the previous
+     * entries of inputs not reached this time are kept as well, so an interrupted
+     * walk does not force the rest of the tree to be reprocessed.
+     */
+    void save(boolean complete) throws IOException {
+        // A unique name, as a batch run and a watcher may save the same manifest at once
+        Path temp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (Map.Entry<String, Entry> e : current.entrySet()) {
+                    write(writer, e.getKey(), e.getValue());
+                }
+                if (!complete) {
+                    // Written straight from the previous entries; a merged copy would double
+                    // the memory held for a large tree
+                    for (Map.Entry<String, Entry> e : previous.entrySet()) {
+                        if (!current.containsKey(e.getKey())) {
+                            write(writer, e.getKey(), e.getValue());
+                        }
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void write(BufferedWriter writer, String key, Entry entry) throws IOException {
+        writer.write(entry.size() + "\t" + entry.lastModified() + "\t" + entry.contentHash() + "\t"
+                + entry.fingerprint() + "\t" + escape(entry.output()) + "\t" + escape(key));
+        writer.newLine();
+    }
+
+    /**
+     * Identifies the settings that determine a file's output, so a change of
+     * pattern, replacement, output compression or the way files are cut up
+     * invalidates every entry.
+     *
+     * @param layout the splitting and streaming settings, which change the output of
+     *               patterns that match or look across the cuts
+     */
+    static String fingerprint(String regexPattern, String replacement, boolean compressedOutput, String layout) {
+        MessageDigest digest = newDigest();
+        digest.update(regexPattern.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update((replacement != null ? replacement : "").getBytes(StandardCharsets.UTF_8));
+        if (compressedOutput) {
+            digest.update(new byte[] {0, 'g', 'z'});
+        }
+        digest.update((byte) 0);
+        digest.update(layout.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                out.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.automated_text_processor.model;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides which files a batch processes. Rules use {@link PathMatcher} syntax,
+ * {@code glob:} or {@code regex:}, with a bare rule taken as a glob. A glob without
+ * a {@code /} is matched against the file name, and any other rule against the
+ * path relative to the input directory. A file is selected if it matches an
+ * include rule (or there are none), matches no exclude rule, and passes the size
+ * and modification time limits. Everything is compiled once by the builder, and
+ * the size and time checks use the attributes the directory walk already read.
+ */
+public final class FileSelector {
+    /**
+     * Every {@code .txt} file, the selection batches have always used, gzipped or not.
+     */
+    public static final FileSelector DEFAULT = builder().include("glob:*.txt").include("glob:*.txt.gz").build();
+
+    private final List<Rule> includes;
+    private final List<Rule> excludes;
+    private final long maxSize;
+    private final Instant modifiedAfter;
+    private final Instant modifiedBefore;
+
+    private FileSelector(Builder builder) {
+        this.includes = List.copyOf(builder.includes);
+        this.excludes = List.copyOf(builder.excludes);
+        this.maxSize = builder.maxSize;
+        this.modifiedAfter = builder.modifiedAfter;
+        this.modifiedBefore = builder.modifiedBefore;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Applies the name rules only, for callers that have no attributes yet.
+     */
+    boolean matchesPath(Path root, Path file) {
+        return (includes.isEmpty() || matchesAny(includes, root, file)) && !matchesAny(excludes, root, file);
+    }
+
+    /**
+     * Applies every rule and limit to a regular file found under {@code root}.
+     */
+    boolean matches(Path root, Path file, BasicFileAttributes attrs) {
+        if (attrs.size() > maxSize) {
+            return false;
+        }
+        if (modifiedAfter != null || modifiedBefore != null) {
+            Instant modified = attrs.lastModifiedTime().toInstant();
+            if ((modifiedAfter != null && modified.isBefore(modifiedAfter))
+                    || (modifiedBefore != null && !modified.isBefore(modifiedBefore))) {
+                return false;
+            }
+        }
+        return matchesPath(root, file);
+    }
+
+    private static boolean matchesAny(List<Rule> rules, Path root, Path file) {
+        Path relative = null;
+        for (Rule rule : rules) {
+            if (rule.byName()) {
+                if (rule.matcher().matches(file.getFileName())) {
+                    return true;
+                }
+            } else {
+                if (relative == null) {
+                    relative = root.relativize(file);
+                }
+                if (rule.matcher().matches(relative)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private record Rule(PathMatcher matcher, boolean byName) {
+
+        static Rule compile(String rule) {
+            FileSystem fileSystem = FileSystems.getDefault();
+            if (rule.startsWith("regex:")) {
+                return new Rule(fileSystem.getPathMatcher(rule), false);
+            }
+            String glob = rule.startsWith("glob:") ? rule.substring("glob:".length()) : rule;
+            return new Rule(fileSystem.getPathMatcher("glob:" + glob), glob.indexOf('/') < 0);
+        }
+    }
+
+    public static final class Builder {
+        private final List<Rule> includes = new ArrayList<>();
+        private final List<Rule> excludes = new ArrayList<>();
+        private long maxSize = Long.MAX_VALUE;
+        private Instant modifiedAfter;
+        private Instant modifiedBefore;
+
+        private Builder() {
+        }
+
+        /**
+         * @throws IllegalArgumentException if the rule is not a valid glob or regex
+         */
+        public Builder include(String rule) {
+            includes.add(Rule.compile(rule));
+            return this;
+        }
+
+        public Builder exclude(String rule) {
+            excludes.add(Rule.compile(rule));
+            return this;
+        }
+
+        public Builder maxSize(long bytes) {
+            if (bytes < 0) {
+                throw new IllegalArgumentException("Size must not be negative: " + bytes);
+            }
+            this.maxSize = bytes;
+            return this;
+        }
+
+        /**
+         * Only selects files last modified at or after {@code instant}.
+         */
+        public Builder modifiedAfter(Instant instant) {
+            this.modifiedAfter = instant;
+            return this;
+        }
+
+        /**
+         * Only selects files last modified before {@code instant}.
+         */
+        public Builder modifiedBefore(Instant instant) {
+            this.modifiedBefore = instant;
+            return this;
+        }
+
+        public FileSelector build() {
+            return new FileSelector(this);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.automated_text_processor.model;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of processing one batch input. Holds no file content, so a batch over
+ * a large tree only keeps a few numbers per file.
+ *
+ * @param error the failure message, or {@code null} if the file was processed
+ */
+public record FileSummary(Path path, Path output, long bytesIn, long bytesOut, long matchCount,
+                          long durationNanos, String error) {
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public double durationMillis() {
+        return durationNanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.automated_text_processor.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Substring search for regex patterns that only match one literal string, with the
+ * same matches as {@code Matcher.find}: leftmost first, each search resuming after
+ * the previous match.
+ *
+ * <p>A {@link String} text is searched with {@link String#indexOf(String, int)},
+ * which the JVM compiles to vectorized code. Other texts use Boyer-Moore-Horspool,
+ * with the skip table indexed by the low byte of each character.
+ */
+final class LiteralSearch {
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private LiteralSearch() {
+    }
+
+    /**
+     * Returns the text {@code regex} matches if it is a plain literal, possibly with
+     * escaped metacharacters or {@code \Q...\E} quoting, or {@code null}.
+     */
+    static String literalOf(String regex) {
+        StringBuilder literal = new StringBuilder(regex.length());
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i++);
+            if (c != '\\') {
+                if (METACHARACTERS.indexOf(c) >= 0) {
+                    return null;
+                }
+                literal.append(c);
+                continue;
+            }
+            if (i == regex.length()) {
+                return null;
+            }
+            char escaped = regex.charAt(i++);
+            if (escaped == 'Q') {
+                int end = regex.indexOf("\\E", i);
+                literal.append(regex, i, end < 0 ? regex.length() : end);
+                i = end < 0 ? regex.length() : end + 2;
+            } else if (escaped < 128 && !Character.isLetterOrDigit(escaped)) {
+                literal.append(escaped);
+            } else {
+                // \d, \n, a back reference and the like
+                return null;
+            }
+        }
+        // The regex engine matches whole code points, so a surrogate in the pattern
+        // does not match half of a pair in the text the way a char search would
+        for (int j = 0; j < literal.length(); j++) {
+            if (Character.isSurrogate(literal.charAt(j))) {
+                return null;
+            }
+        }
+        return literal.length() > 0 ? literal.toString() : null;
+    }
+
+    /**
+     * Returns every occurrence of {@code literal}, which must not be empty. All
+     * elements are the {@code literal} instance itself.
+     */
+    static List<String> findAll(CharSequence text, String literal) {
+        List<String> matches = new ArrayList<>();
+        int length = literal.length();
+        if (text instanceof String string) {
+            for (int i = string.indexOf(literal); i >= 0; i = string.indexOf(literal, i + length)) {
+                matches.add(literal);
+            }
+            return matches;
+        }
+        int[] skip = skipTable(literal);
+        for (int i = indexOf(text, literal, skip, 0); i >= 0; i = indexOf(text, literal, skip, i + length)) {
+            matches.add(literal);
+        }
+        return matches;
+    }
+
+    private static int[] skipTable(String literal) {
+        int last = literal.length() - 1;
+        int[] skip = new int[256];
+        Arrays.fill(skip, literal.length());
+        // Characters sharing a low byte share an entry, which keeps the smallest skip
+        for (int i = 0; i < last; i++) {
+            int index = literal.charAt(i) & 0xFF;
+            skip[index] = Math.min(skip[index], last - i);
+        }
+        return skip;
+    }
+
+    private static int indexOf(CharSequence text, String literal, int[] skip, int from) {
+        int last = literal.length() - 1;
+        char lastChar = literal.charAt(last);
+        int length = text.length();
+        for (int i = from + last; i < length; i += skip[text.charAt(i) & 0xFF]) {
+            if (text.charAt(i) != lastChar) {
+                continue;
+            }
+            int j = last - 1;
+            while (j >= 0 && text.charAt(i - last + j) == literal.charAt(j)) {
+                j--;
+            }
+            if (j < 0) {
+                return i - last;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.automated_text_processor.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+/**
+ * Read-only {@link CharSequence} view of a byte buffer in which every byte is one
+ * character (ISO-8859-1). For pure ASCII files this is also the UTF-8 decoding,
+ * which lets regexes run over a memory-mapped file without copying it to the heap.
+ */
+final class MappedCharSequence implements CharSequence {
+    private static final long NON_ASCII_MASK = 0x8080808080808080L;
+
+    private final ByteBuffer bytes;
+    private final int offset;
+    private final int length;
+
+    private MappedCharSequence(ByteBuffer bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Maps {@code file} if it is pure ASCII and fits in one mapping, or returns
+     * {@code null} so the caller can fall back to decoding it.
+     */
+    static MappedCharSequence mapAscii(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return null;
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (!isAscii(buffer)) {
+                return null;
+            }
+            return new MappedCharSequence(buffer, 0, (int) size);
+        }
+    }
+
+    private static boolean isAscii(ByteBuffer buffer) {
+        int limit = buffer.limit();
+        int i = 0;
+        for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+            if ((buffer.getLong(i) & NON_ASCII_MASK) != 0) {
+                return false;
+            }
+        }
+        for (; i < limit; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Feeds the underlying bytes to {@code digest}.
+     */
+    void digest(MessageDigest digest) {
+        digest.update(bytes.duplicate().limit(offset + length).position(offset));
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return (char) (bytes.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new MappedCharSequence(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        byte[] copy = new byte[length];
+        bytes.get(offset, copy);
+        return new String(copy, StandardCharsets.ISO_8859_1);
+    }
+}
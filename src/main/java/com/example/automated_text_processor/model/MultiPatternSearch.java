@@ -0,0 +1,121 @@
+package com.example.automated_text_processor.model;
+
+import com.example.automated_text_processor.util.PatternCache;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Finds the matches of several named patterns, with the same matches per pattern
+ * as {@link Matcher#find()}, without one full pass per pattern.
+ *
+ * <p>Patterns that are plain literals share an {@link AhoCorasick} automaton and are
+ * all found in one pass. The others are each scanned by their own matcher, on the
+ * common {@link ForkJoinPool} when the text is large, so the scans overlap instead
+ * of running one after another. Joining them into one alternation would still try
+ * every alternative at every position, and measured slower than separate scans.
+ */
+final class MultiPatternSearch {
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final String[] tags;
+    private final int[] literalTags;
+    private final AhoCorasick literals;
+    private final int[] regexTags;
+    private final Pattern[] regexes;
+
+    /**
+     * @param patterns regexes by tag, in the order matches at the same position are returned
+     * @throws PatternSyntaxException if a pattern is invalid
+     */
+    MultiPatternSearch(Map<String, String> patterns) {
+        tags = patterns.keySet().toArray(new String[0]);
+        List<String> literalList = new ArrayList<>();
+        List<Integer> literalTagList = new ArrayList<>();
+        List<Integer> regexTagList = new ArrayList<>();
+        List<Pattern> regexList = new ArrayList<>();
+        int tag = 0;
+        for (String regex : patterns.values()) {
+            // Compiled first, so an invalid pattern is reported even if it looks literal
+            Pattern pattern = PatternCache.getInstance().get(regex);
+            String literal = LiteralSearch.literalOf(regex);
+            if (literal != null) {
+                literalList.add(literal);
+                literalTagList.add(tag);
+            } else {
+                regexTagList.add(tag);
+                regexList.add(pattern);
+            }
+            tag++;
+        }
+        literalTags = literalTagList.stream().mapToInt(Integer::intValue).toArray();
+        literals = literalList.isEmpty() ? null : AhoCorasick.build(literalList);
+        regexTags = regexTagList.stream().mapToInt(Integer::intValue).toArray();
+        regexes = regexList.toArray(new Pattern[0]);
+    }
+
+    /**
+     * Returns every pattern's matches, ordered by start and then by pattern order.
+     */
+    List<TaggedMatch> search(CharSequence text) {
+        List<Hit> hits = new ArrayList<>();
+        List<ScanTask> tasks = new ArrayList<>();
+        boolean parallel = regexes.length + (literals != null ? 1 : 0) > 1
+                && text.length() >= PARALLEL_THRESHOLD
+                && ForkJoinPool.getCommonPoolParallelism() > 1;
+        for (int i = 0; i < regexes.length; i++) {
+            ScanTask task = new ScanTask(text, regexTags[i], regexes[i]);
+            if (parallel) {
+                ForkJoinPool.commonPool().execute(task);
+                tasks.add(task);
+            } else {
+                hits.addAll(task.compute());
+            }
+        }
+        if (literals != null) {
+            literals.search(text, (id, start, end) -> hits.add(new Hit(literalTags[id], start, end)));
+        }
+        for (ScanTask task : tasks) {
+            hits.addAll(task.join());
+        }
+
+        hits.sort(Comparator.comparingInt(Hit::start).thenComparingInt(Hit::tag));
+        List<TaggedMatch> matches = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            matches.add(new TaggedMatch(tags[hit.tag()], hit.start(), hit.end(),
+                    text.subSequence(hit.start(), hit.end()).toString()));
+        }
+        return matches;
+    }
+
+    private record Hit(int tag, int start, int end) {
+    }
+
+    private static final class ScanTask extends RecursiveTask<List<Hit>> {
+        private final CharSequence text;
+        private final int tag;
+        private final Pattern pattern;
+
+        ScanTask(CharSequence text, int tag, Pattern pattern) {
+            this.text = text;
+            this.tag = tag;
+            this.pattern = pattern;
+        }
+
+        @Override
+        protected List<Hit> compute() {
+            List<Hit> hits = new ArrayList<>();
+            Matcher matcher = pattern.matcher(text);
+            while (matcher.find()) {
+                hits.add(new Hit(tag, matcher.start(), matcher.end()));
+            }
+            return hits;
+        }
+    }
+}
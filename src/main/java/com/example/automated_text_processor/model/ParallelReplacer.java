@@ -0,0 +1,193 @@
+package com.example.automated_text_processor.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Regex replace over segments of a large text on the common {@link ForkJoinPool},
+ * with the same result as {@code Matcher.replaceAll}. Segments end after a line
+ * break, or at any point when the caller declares a maximum match length, in which
+ * case each segment's matcher may run that far into the next one.
+ *
+ * <p>Each segment matches over a region with transparent, non-anchoring bounds, so
+ * lookaround and anchors see the whole text. A match that runs past the end of its
+ * segment moves the start of the next one, which is then matched again from there.
+ * A match that reaches the end of its region may have been cut short, and then
+ * everything from that segment on is replaced sequentially instead. What cannot be
+ * detected is a match attempt that failed only for want of the text beyond the
+ * region, so the result is only guaranteed for patterns whose matches never span a
+ * line break, or never exceed the declared length.
+ */
+final class ParallelReplacer {
+    static final String PARALLEL_THRESHOLD_PROPERTY = "textprocessor.replace.parallelThreshold";
+    private static final int MIN_SEGMENT_SIZE = 1 << 20;
+    private static volatile int parallelThreshold =
+            Integer.getInteger(PARALLEL_THRESHOLD_PROPERTY, 8 * 1024 * 1024);
+
+    private final CharSequence text;
+    private final Pattern pattern;
+    private final String replacement;
+    private final int maxMatchLength;
+
+    private ParallelReplacer(CharSequence text, Pattern pattern, String replacement, int maxMatchLength) {
+        this.text = text;
+        this.pattern = pattern;
+        this.replacement = replacement;
+        this.maxMatchLength = maxMatchLength;
+    }
+
+    static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    static void setParallelThreshold(int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * @param maxMatchLength the longest match the pattern can produce, or -1 to
+     *                       split at line breaks only
+     */
+    static String replace(CharSequence text, Pattern pattern, String replacement, int maxMatchLength) {
+        int length = text.length();
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (length < parallelThreshold || parallelism < 2) {
+            return pattern.matcher(text).replaceAll(replacement);
+        }
+        return replace(text, pattern, replacement, maxMatchLength,
+                Math.max(MIN_SEGMENT_SIZE, length / (parallelism * 4)));
+    }
+
+    /**
+     * Replaces in segments of about {@code segmentSize} characters, however short
+     * the text.
+     */
+    static String replace(CharSequence text, Pattern pattern, String replacement, int maxMatchLength,
+                          int segmentSize) {
+        // \G refers to the previous match, which a segment cannot see, and an empty
+        // text has no segment to report an empty match in
+        if (pattern.pattern().contains("\\G") || text.length() == 0) {
+            return pattern.matcher(text).replaceAll(replacement);
+        }
+        return new ParallelReplacer(text, pattern, replacement, maxMatchLength).replace(segmentSize);
+    }
+
+    private String replace(int segmentSize) {
+        int length = text.length();
+        List<SegmentTask> tasks = new ArrayList<>();
+        for (int start = 0; start < length; ) {
+            int end = segmentEnd(start + segmentSize);
+            tasks.add(new SegmentTask(start, end));
+            start = end;
+        }
+        tasks.forEach(ForkJoinPool.commonPool()::execute);
+
+        StringBuilder out = new StringBuilder(length);
+        int position = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            SegmentTask task = tasks.get(i);
+            if (position >= task.end && task.end < length) {
+                // A match ran over the whole segment; the last one still has to look
+                // for an empty match at the end of the text
+                task.cancel(false);
+                continue;
+            }
+            Segment segment = position == task.start ? task.join() : replace(position, task.end);
+            if (!segment.complete()) {
+                tasks.subList(i + 1, tasks.size()).forEach(t -> t.cancel(false));
+                out.append(replace(position, length).output());
+                return out.toString();
+            }
+            out.append(segment.output());
+            position = segment.end();
+        }
+        return out.toString();
+    }
+
+    /**
+     * Returns where the segment starting before {@code nominalEnd} ends: after the
+     * next line break, or at {@code nominalEnd} itself when matches have a known
+     * maximum length.
+     */
+    private int segmentEnd(int nominalEnd) {
+        int length = text.length();
+        if (nominalEnd >= length) {
+            return length;
+        }
+        if (maxMatchLength >= 0) {
+            // Keep surrogate pairs together
+            return Character.isHighSurrogate(text.charAt(nominalEnd - 1)) ? nominalEnd + 1 : nominalEnd;
+        }
+        for (int i = nominalEnd - 1; i < length; i++) {
+            if (text.charAt(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Replaces the matches that start in {@code [start, end)}.
+     */
+    private Segment replace(int start, int end) {
+        int length = text.length();
+        int regionEnd = end == length ? length
+                : maxMatchLength < 0 ? end : (int) Math.min(length, (long) end + maxMatchLength);
+        Matcher matcher = pattern.matcher(text)
+                .useTransparentBounds(true)
+                .useAnchoringBounds(false)
+                .region(start, regionEnd);
+        StringBuilder out = new StringBuilder(end - start + 16);
+        ReplacementTemplate template = null;
+        int last = start;
+        while (matcher.find()) {
+            // An empty match at the very end of the text still belongs to the last segment
+            if (matcher.start() >= end && end < length) {
+                break;
+            }
+            // A failed find always reports hitEnd, so only a match can be checked this way
+            if (matcher.hitEnd() && regionEnd < length) {
+                return new Segment(null, start, false);
+            }
+            if (template == null) {
+                template = ReplacementTemplate.compile(replacement, matcher.groupCount());
+            }
+            out.append(text, last, matcher.start());
+            template.appendTo(out, matcher, text);
+            last = matcher.end();
+        }
+        if (last < end) {
+            out.append(text, last, end);
+        }
+        return new Segment(out, Math.max(last, end), true);
+    }
+
+    /**
+     * @param end      where the next segment's matching has to start
+     * @param complete {@code false} if the region cut a match attempt short
+     */
+    private record Segment(StringBuilder output, int end, boolean complete) {
+    }
+
+    private final class SegmentTask extends RecursiveTask<Segment> {
+        private final int start;
+        private final int end;
+
+        SegmentTask(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Segment compute() {
+            return replace(start, end);
+        }
+    }
+}
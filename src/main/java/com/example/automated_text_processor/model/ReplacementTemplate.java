@@ -0,0 +1,123 @@
+package com.example.automated_text_processor.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+
+/**
+ * Pre-parsed form of a {@link Matcher#appendReplacement} replacement string
+ * ({@code $n}, {@code ${name}} and backslash escapes). Unlike
+ * {@code appendReplacement} it does not copy the text between matches, so it can
+ * be used with matchers that run over a region of a larger buffer.
+ */
+final class ReplacementTemplate {
+    private final String[] literals;
+    private final Object[] groups;
+
+    private ReplacementTemplate(String[] literals, Object[] groups) {
+        this.literals = literals;
+        this.groups = groups;
+    }
+
+    /**
+     * Parses {@code replacement} the way {@code Matcher} does. Like {@code Matcher},
+     * callers should only compile once a match has been found, so that an invalid
+     * replacement is not reported for text that has no matches.
+     */
+    static ReplacementTemplate compile(String replacement, int groupCount) {
+        List<String> literals = new ArrayList<>();
+        List<Object> groups = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int cursor = 0;
+        while (cursor < replacement.length()) {
+            char c = replacement.charAt(cursor);
+            if (c == '\\') {
+                cursor++;
+                if (cursor == replacement.length()) {
+                    throw new IllegalArgumentException("character to be escaped is missing");
+                }
+                literal.append(replacement.charAt(cursor++));
+            } else if (c == '$') {
+                cursor++;
+                if (cursor == replacement.length()) {
+                    throw new IllegalArgumentException("Illegal group reference: group index is missing");
+                }
+                Object group;
+                if (replacement.charAt(cursor) == '{') {
+                    cursor++;
+                    int nameStart = cursor;
+                    while (cursor < replacement.length() && isAsciiAlphanumeric(replacement.charAt(cursor))) {
+                        cursor++;
+                    }
+                    if (cursor == nameStart) {
+                        throw new IllegalArgumentException("named capturing group has 0 length name");
+                    }
+                    if (cursor == replacement.length() || replacement.charAt(cursor) != '}') {
+                        throw new IllegalArgumentException("named capturing group is missing trailing '}'");
+                    }
+                    String name = replacement.substring(nameStart, cursor);
+                    if (Character.isDigit(name.charAt(0))) {
+                        throw new IllegalArgumentException("capturing group name {" + name + "} starts with digit character");
+                    }
+                    cursor++;
+                    group = name;
+                } else {
+                    int refNum = replacement.charAt(cursor) - '0';
+                    if (refNum < 0 || refNum > 9) {
+                        throw new IllegalArgumentException("Illegal group reference");
+                    }
+                    cursor++;
+                    // Take further digits only while they still name an existing group
+                    while (cursor < replacement.length()) {
+                        int nextDigit = replacement.charAt(cursor) - '0';
+                        if (nextDigit < 0 || nextDigit > 9 || refNum * 10 + nextDigit > groupCount) {
+                            break;
+                        }
+                        refNum = refNum * 10 + nextDigit;
+                        cursor++;
+                    }
+                    if (refNum > groupCount) {
+                        throw new IndexOutOfBoundsException("No group " + refNum);
+                    }
+                    group = refNum;
+                }
+                literals.add(literal.toString());
+                groups.add(group);
+                literal.setLength(0);
+            } else {
+                literal.append(c);
+                cursor++;
+            }
+        }
+        literals.add(literal.toString());
+        return new ReplacementTemplate(literals.toArray(new String[0]), groups.toArray());
+    }
+
+    /**
+     * Appends the expansion for the current match of {@code matcher}, which must be
+     * matching over {@code text}.
+     */
+    void appendTo(StringBuilder out, Matcher matcher, CharSequence text) {
+        for (int i = 0; i < groups.length; i++) {
+            out.append(literals[i]);
+            Object group = groups[i];
+            int start;
+            int end;
+            if (group instanceof Integer index) {
+                start = matcher.start(index);
+                end = matcher.end(index);
+            } else {
+                start = matcher.start((String) group);
+                end = matcher.end((String) group);
+            }
+            if (start != -1) {
+                out.append(text, start, end);
+            }
+        }
+        out.append(literals[literals.length - 1]);
+    }
+
+    private static boolean isAsciiAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
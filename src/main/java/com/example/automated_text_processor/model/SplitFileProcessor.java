@@ -0,0 +1,175 @@
+package com.example.automated_text_processor.model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Processes one large file as byte ranges on a {@link ForkJoinPool}. Each range
+ * ends just after a line break, so it decodes on its own, and ranges are handled
+ * a pool's worth at a time: read, decoded and matched in parallel, then written
+ * in order, which bounds memory to about that many ranges.
+ *
+ * <p>The output is the same as for the whole file at once as long as no match
+ * spans a line break and the pattern does not look across one; {@code ^} and
+ * {@code $} without {@code MULTILINE}, for example, would match at every range.
+ * An empty match where one range ends and the next begins is only reported by
+ * the next range, as it would be once for the whole file.
+ */
+final class SplitFileProcessor {
+    // How much is read at a time while looking for the line break that ends a range
+    private static final int PROBE_SIZE = 64 * 1024;
+
+    private final String regexPattern;
+    private final String replacement;
+    private final int rangeSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param replacement the replacement, or {@code null} to write the matches one per line
+     * @param rangeSize   bytes per range, extended to the end of the line it cuts
+     */
+    SplitFileProcessor(String regexPattern, String replacement, int rangeSize, ForkJoinPool pool) {
+        if (rangeSize <= 0) {
+            throw new IllegalArgumentException("Range size must be positive: " + rangeSize);
+        }
+        this.regexPattern = regexPattern;
+        this.replacement = replacement;
+        this.rangeSize = rangeSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Writes the processed file to {@code out}, feeding the raw bytes to
+     * {@code digest} in file order if there is one, and returns the number of
+     * matches.
+     */
+    long process(Path file, MessageDigest digest, Writer out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                // No range to report a pattern's empty match in
+                StringBuilder output = new StringBuilder();
+                long matches = BatchProcessor.transform("", regexPattern, replacement, output);
+                out.append(output);
+                return matches;
+            }
+            long matches = 0;
+            long start = 0;
+            while (start < size) {
+                List<RangeTask> wave = new ArrayList<>();
+                while (start < size && wave.size() < pool.getParallelism()) {
+                    long end = lineEnd(channel, Math.min(start + rangeSize, size), size);
+                    wave.add(new RangeTask(channel, start, end, end == size, digest != null));
+                    start = end;
+                }
+                wave.forEach(pool::execute);
+
+                for (RangeTask task : wave) {
+                    Range range;
+                    try {
+                        range = task.join();
+                    } catch (UncheckedIOException e) {
+                        wave.forEach(t -> t.cancel(false));
+                        throw e.getCause();
+                    } catch (RuntimeException e) {
+                        wave.forEach(t -> t.cancel(false));
+                        throw e;
+                    }
+                    if (digest != null) {
+                        digest.update(range.bytes());
+                    }
+                    if (replacement != null) {
+                        out.append(range.output());
+                    } else if (range.matches() > 0) {
+                        if (matches > 0) {
+                            out.write('\n');
+                        }
+                        out.append(range.output());
+                    }
+                    matches += range.matches();
+                }
+            }
+            return matches;
+        }
+    }
+
+    /**
+     * Returns the position just after the first line break at or after
+     * {@code position - 1}, or {@code size} if there is none.
+     */
+    private static long lineEnd(FileChannel channel, long position, long size) throws IOException {
+        if (position >= size) {
+            return size;
+        }
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+        long offset = position - 1;
+        while (offset < size) {
+            probe.clear();
+            int read = channel.read(probe, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    private record Range(byte[] bytes, StringBuilder output, long matches) {
+    }
+
+    private final class RangeTask extends RecursiveTask<Range> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final boolean last;
+        private final boolean keepBytes;
+
+        RangeTask(FileChannel channel, long start, long end, boolean last, boolean keepBytes) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.last = last;
+            this.keepBytes = keepBytes;
+        }
+
+        @Override
+        protected Range compute() {
+            try {
+                if (end - start > Integer.MAX_VALUE - 8) {
+                    throw new IOException("Line too long to split at " + start);
+                }
+                byte[] bytes = new byte[(int) (end - start)];
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    // Positional reads, so the ranges can share the channel
+                    if (channel.read(buffer, start + buffer.position()) < 0) {
+                        throw new EOFException("File shrank while it was being read");
+                    }
+                }
+                String content = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+                StringBuilder output = new StringBuilder(content.length());
+                long matches = BatchProcessor.transform(content, regexPattern, replacement, output, last);
+                return new Range(keepBytes ? bytes : null, output, matches);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.automated_text_processor.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs a regex search or replace over a {@link Reader} in fixed-size chunks and
+ * writes the result straight to a {@link Writer}, so memory use does not depend
+ * on the input size. The last {@code overlap} characters of each chunk are held
+ * back and rescanned with the next one, so any match no longer than the overlap
+ * is found even when it crosses a chunk boundary. The same number of characters
+ * is kept before the scan position as lookbehind context.
+ */
+final class StreamingRegexProcessor {
+    private final Pattern pattern;
+    private final String replacement;
+    private final int chunkSize;
+    private final int overlap;
+
+    /**
+     * @param replacement the replacement, or {@code null} to write the matches one per line
+     */
+    StreamingRegexProcessor(Pattern pattern, String replacement, int chunkSize, int overlap) {
+        if (chunkSize <= 0 || overlap < 0) {
+            throw new IllegalArgumentException("Invalid chunk size " + chunkSize + " or overlap " + overlap);
+        }
+        this.pattern = pattern;
+        this.replacement = replacement;
+        this.chunkSize = chunkSize;
+        this.overlap = overlap;
+    }
+
+    /**
+     * Processes the whole input and returns the number of matches.
+     */
+    long process(Reader in, Writer out) throws IOException {
+        char[] buffer = new char[chunkSize];
+        StringBuilder window = new StringBuilder(chunkSize + 2 * overlap);
+        StringBuilder output = new StringBuilder(chunkSize);
+        Matcher matcher = pattern.matcher(window);
+        matcher.useTransparentBounds(true);
+        matcher.useAnchoringBounds(false);
+
+        ReplacementTemplate template = null;
+        long matches = 0;
+        int position = 0;
+        int lastEmptyMatch = -1;
+        boolean eof = false;
+
+        while (!eof) {
+            int read = in.read(buffer, 0, buffer.length);
+            if (read < 0) {
+                eof = true;
+            } else {
+                window.append(buffer, 0, read);
+            }
+            int limit = eof ? window.length() : window.length() - overlap;
+            if (limit <= position && !eof) {
+                continue;
+            }
+
+            matcher.reset(window);
+            matcher.region(position, window.length());
+            int emitted = position;
+            int cut = limit;
+            while (matcher.find()) {
+                int start = matcher.start();
+                int end = matcher.end();
+                if (start >= limit && !eof) {
+                    break;
+                }
+                // A match running into the unread input might grow once more arrives;
+                // rescan it with the next chunk unless it is already longer than a chunk.
+                if (!eof && matcher.hitEnd() && end > limit && window.length() - start <= chunkSize + overlap) {
+                    cut = start;
+                    break;
+                }
+                if (start == end && start == lastEmptyMatch) {
+                    continue;
+                }
+
+                matches++;
+                if (replacement != null) {
+                    if (template == null) {
+                        template = ReplacementTemplate.compile(replacement, matcher.groupCount());
+                    }
+                    output.append(window, emitted, start);
+                    template.appendTo(output, matcher, window);
+                } else {
+                    if (matches > 1) {
+                        output.append('\n');
+                    }
+                    output.append(window, start, end);
+                }
+                emitted = end;
+                if (start == end) {
+                    lastEmptyMatch = start;
+                }
+            }
+
+            cut = Math.max(cut, emitted);
+            if (replacement != null) {
+                output.append(window, emitted, cut);
+            }
+            write(out, output, buffer);
+
+            int discard = Math.max(0, cut - overlap);
+            window.delete(0, discard);
+            position = cut - discard;
+            lastEmptyMatch -= discard;
+        }
+        out.flush();
+        return matches;
+    }
+
+    private static void write(Writer out, StringBuilder output, char[] scratch) throws IOException {
+        for (int from = 0; from < output.length(); from += scratch.length) {
+            int to = Math.min(output.length(), from + scratch.length);
+            output.getChars(from, to, scratch, 0);
+            out.write(scratch, 0, to - from);
+        }
+        output.setLength(0);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.automated_text_processor.model;
+
+/**
+ * One match of a multi-pattern search, tagged with the name of the pattern that
+ * produced it.
+ *
+ * @param start index of the first character of the match
+ * @param end   index after the last character of the match
+ */
+public record TaggedMatch(String tag, int start, int end, String value) {
+}
@@ -0,0 +1,27 @@
+package com.example.automated_text_processor.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable result of {@link TextProcessor#analyze(CharSequence)}: a text with its
+ * lines and word frequency, all computed when the analysis is built. Instances
+ * hold no other state, so they can be shared between threads.
+ */
+public record TextAnalysis(String text, List<String> lines, Map<String, Integer> wordFrequency) {
+    static final TextAnalysis EMPTY = new TextAnalysis("", List.of(), Map.of());
+
+    public TextAnalysis {
+        lines = Collections.unmodifiableList(lines);
+        wordFrequency = Collections.unmodifiableMap(wordFrequency);
+    }
+
+    public List<String> searchWithRegex(String pattern) {
+        return TextProcessor.searchWithRegex(text, pattern);
+    }
+
+    public String replaceWithRegex(String pattern, String replacement) {
+        return TextProcessor.replaceWithRegex(text, pattern, replacement);
+    }
+}
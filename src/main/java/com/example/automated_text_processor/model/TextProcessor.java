@@ -1,34 +1,128 @@
 package com.example.automated_text_processor.model;
 
+import com.example.automated_text_processor.util.PatternCache;
 import java.util.*;
 import java.util.regex.*;
 import java.util.stream.Collectors;
 
 public class TextProcessor {
-    private String text;
-    private List<String> processedLines;
-    private Map<String, Integer> wordFrequency;
+    private volatile String text;
+    // The analysis of the text it holds, which may be an earlier one
+    private volatile TextAnalysis analysis;
 
-    public TextProcessor() {
-        this.processedLines = new ArrayList<>();
-        this.wordFrequency = new HashMap<>();
+    /**
+     * Analyzes the given text without touching any shared state, so it is safe to
+     * call concurrently.
+     */
+    public static TextAnalysis analyze(CharSequence text) {
+        String content = text.toString();
+        return new TextAnalysis(content, splitLines(content), calculateWordFrequency(content));
+    }
+
+    /**
+     * Texts of at least this many characters have their words counted in parallel.
+     */
+    public static int getParallelWordCountThreshold() {
+        return WordCounter.getParallelThreshold();
+    }
+
+    public static void setParallelWordCountThreshold(int threshold) {
+        WordCounter.setParallelThreshold(threshold);
+    }
+
+    /**
+     * Texts of at least this many characters are split into segments by
+     * {@link #replaceWithRegexParallel(String, String)}.
+     */
+    public static int getParallelReplaceThreshold() {
+        return ParallelReplacer.getParallelThreshold();
+    }
+
+    public static void setParallelReplaceThreshold(int threshold) {
+        ParallelReplacer.setParallelThreshold(threshold);
     }
 
     public void setText(String text) {
+        // Lines and word frequency are computed on the next read, so callers that
+        // only search or replace never pay for them.
         this.text = text;
-        processText();
     }
 
-    private void processText() {
-        if (text != null) {
-            processedLines = Arrays.asList(text.split("\n"));
-            calculateWordFrequency();
+    /**
+     * Returns the analysis of the current text, computed on first access and kept
+     * until the text changes. Concurrent first reads may both compute it, but never
+     * see a mix of two texts.
+     */
+    public TextAnalysis analyze() {
+        String current = text;
+        if (current == null) {
+            return TextAnalysis.EMPTY;
         }
+        TextAnalysis result = analysis;
+        if (result == null || result.text() != current) {
+            result = analyze(current);
+            analysis = result;
+        }
+        return result;
     }
 
+    /**
+     * Returns the matches of {@code pattern} in order. Patterns without
+     * metacharacters, or quoted with {@code \Q...\E}, are searched for as plain
+     * strings, with the same result.
+     */
     public List<String> searchWithRegex(String pattern) {
+        return searchWithRegex(text, pattern);
+    }
+
+    public String replaceWithRegex(String pattern, String replacement) {
+        return replaceWithRegex(text, pattern, replacement);
+    }
+
+    /**
+     * Like {@link #replaceWithRegex(String, String)}, but a large text is split at
+     * line breaks and the segments replaced on all cores. The result is the same
+     * for patterns whose matches never span a line break.
+     */
+    public String replaceWithRegexParallel(String pattern, String replacement) {
+        return replaceWithRegexParallel(text, pattern, replacement, -1);
+    }
+
+    /**
+     * Like {@link #replaceWithRegexParallel(String, String)} for patterns that may
+     * match across lines, but whose matches are never longer than
+     * {@code maxMatchLength}; the text can then be split anywhere.
+     */
+    public String replaceWithRegexParallel(String pattern, String replacement, int maxMatchLength) {
+        if (maxMatchLength < 0) {
+            throw new IllegalArgumentException("Match length must not be negative: " + maxMatchLength);
+        }
+        return replaceWithRegexParallel(text, pattern, replacement, maxMatchLength);
+    }
+
+    /**
+     * Searches for several named patterns at once, with the same matches for each as
+     * {@link #searchWithRegex(String)}. Literal patterns are all found in one pass and
+     * the others are scanned concurrently on large texts. Matches are ordered by
+     * position, and matches at the same position by the iteration order of
+     * {@code patterns}.
+     */
+    public List<TaggedMatch> searchWithPatterns(Map<String, String> patterns) {
+        return searchWithPatterns(text, patterns);
+    }
+
+    static List<TaggedMatch> searchWithPatterns(CharSequence text, Map<String, String> patterns) {
+        return new MultiPatternSearch(patterns).search(text);
+    }
+
+    static List<String> searchWithRegex(CharSequence text, String pattern) {
+        // A literal pattern always compiles, so skipping the regex engine loses no errors
+        String literal = LiteralSearch.literalOf(pattern);
+        if (literal != null) {
+            return LiteralSearch.findAll(text, literal);
+        }
         List<String> matches = new ArrayList<>();
-        Pattern regexPattern = Pattern.compile(pattern);
+        Pattern regexPattern = PatternCache.getInstance().get(pattern);
         Matcher matcher = regexPattern.matcher(text);
         
         while (matcher.find()) {
@@ -37,28 +131,32 @@ public class TextProcessor {
         return matches;
     }
 
-    public String replaceWithRegex(String pattern, String replacement) {
-        return text.replaceAll(pattern, replacement);
+    static String replaceWithRegex(CharSequence text, String pattern, String replacement) {
+        return PatternCache.getInstance().get(pattern).matcher(text).replaceAll(replacement);
     }
 
-    private void calculateWordFrequency() {
-        wordFrequency.clear();
-        if (text != null) {
-            Arrays.stream(text.toLowerCase().split("\\W+"))
-                  .filter(word -> !word.isEmpty())
-                  .forEach(word -> wordFrequency.merge(word, 1, Integer::sum));
-        }
+    static String replaceWithRegexParallel(CharSequence text, String pattern, String replacement,
+                                           int maxMatchLength) {
+        return ParallelReplacer.replace(text, PatternCache.getInstance().get(pattern), replacement, maxMatchLength);
+    }
+
+    static List<String> splitLines(String text) {
+        return Arrays.asList(text.split("\n"));
+    }
+
+    static Map<String, Integer> calculateWordFrequency(CharSequence text) {
+        return WordCounter.count(text).toMap();
     }
 
     public Map<String, Integer> getWordFrequency() {
-        return new HashMap<>(wordFrequency);
+        return new HashMap<>(analyze().wordFrequency());
     }
 
     public List<String> getProcessedLines() {
-        return new ArrayList<>(processedLines);
+        return new ArrayList<>(analyze().lines());
     }
 
     public String getText() {
         return text;
     }
-} 
\ No newline at end of file
+} 
@@ -0,0 +1,136 @@
+package com.example.automated_text_processor.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Open-addressing word to count table. Lookups compare the token characters in
+ * place, so a {@code String} is only allocated the first time a word is seen and
+ * counts stay as primitive ints instead of boxed {@code Integer} merges.
+ */
+final class WordCountMap {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private String[] keys;
+    private int[] hashes;
+    private int[] counts;
+    private int size;
+
+    WordCountMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    WordCountMap(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        keys = new String[tableSize];
+        hashes = new int[tableSize];
+        counts = new int[tableSize];
+    }
+
+    /**
+     * Adds one occurrence of {@code chars[0, length)}, whose {@link String#hashCode()}
+     * style hash the caller has already computed while scanning.
+     */
+    void increment(char[] chars, int length, int hash) {
+        int mask = keys.length - 1;
+        int index = mix(hash) & mask;
+        while (true) {
+            String key = keys[index];
+            if (key == null) {
+                insert(index, new String(chars, 0, length), hash, 1);
+                return;
+            }
+            if (hashes[index] == hash && matches(key, chars, length)) {
+                counts[index]++;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    void add(String word, int hash, int count) {
+        int mask = keys.length - 1;
+        int index = mix(hash) & mask;
+        while (true) {
+            String key = keys[index];
+            if (key == null) {
+                insert(index, word, hash, count);
+                return;
+            }
+            if (hashes[index] == hash && key.equals(word)) {
+                counts[index] += count;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    void addAll(WordCountMap other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != null) {
+                add(other.keys[i], other.hashes[i], other.counts[i]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    Map<String, Integer> toMap() {
+        Map<String, Integer> map = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                map.put(keys[i], counts[i]);
+            }
+        }
+        return map;
+    }
+
+    private void insert(int index, String word, int hash, int count) {
+        keys[index] = word;
+        hashes[index] = hash;
+        counts[index] = count;
+        if (++size > (keys.length >> 1) + (keys.length >> 2)) {
+            resize();
+        }
+    }
+
+    private void resize() {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        keys = new String[oldKeys.length << 1];
+        hashes = new int[oldKeys.length << 1];
+        counts = new int[oldKeys.length << 1];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = mix(oldHashes[i]) & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                hashes[index] = oldHashes[i];
+                counts[index] = oldCounts[i];
+            }
+        }
+    }
+
+    private static boolean matches(String key, char[] chars, int length) {
+        if (key.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key.charAt(i) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
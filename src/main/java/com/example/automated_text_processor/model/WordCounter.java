@@ -0,0 +1,179 @@
+package com.example.automated_text_processor.model;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Single-pass word tokenizer with the same semantics as
+ * {@code text.toLowerCase().split("\\W+")}: a word is a maximal run of
+ * {@code [a-z0-9_]} after lowercasing, everything else is a separator.
+ * Texts longer than the parallel threshold are counted in chunks on the
+ * common {@link ForkJoinPool} and the per-chunk tables merged.
+ */
+final class WordCounter {
+    static final String PARALLEL_THRESHOLD_PROPERTY = "textprocessor.wordcount.parallelThreshold";
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final boolean[] WORD_CHARS = new boolean[128];
+    private static volatile int parallelThreshold =
+            Integer.getInteger(PARALLEL_THRESHOLD_PROPERTY, 8 * 1024 * 1024);
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            WORD_CHARS[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            WORD_CHARS[c] = true;
+        }
+        WORD_CHARS['_'] = true;
+    }
+
+    private WordCounter() {
+    }
+
+    static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    static void setParallelThreshold(int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        parallelThreshold = threshold;
+    }
+
+    static WordCountMap count(CharSequence text) {
+        int length = text.length();
+        if (length < parallelThreshold || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            return count(text, 0, length);
+        }
+        return countInChunks(text, Math.max(MIN_CHUNK_SIZE, length / (ForkJoinPool.getCommonPoolParallelism() * 4)));
+    }
+
+    /**
+     * Counts in chunks of at most about {@code chunkSize} characters, however short
+     * the text.
+     */
+    static WordCountMap countInChunks(CharSequence text, int chunkSize) {
+        return ForkJoinPool.commonPool().invoke(new CountTask(text, 0, text.length(), chunkSize));
+    }
+
+    static WordCountMap count(CharSequence text, int from, int to) {
+        // String.toLowerCase() has a few locale-specific rules for the letter I
+        String language = Locale.getDefault().getLanguage();
+        boolean turkic = language.equals("tr") || language.equals("az");
+        boolean lithuanian = language.equals("lt");
+
+        WordCountMap counts = new WordCountMap();
+        char[] word = new char[32];
+        int length = 0;
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            char original = text.charAt(i);
+            char c;
+            boolean endsWord;
+            if (turkic && original == 'I') {
+                // Dotless i is not a word character, but I + combining dot above is a plain i
+                boolean dotted = i + 1 < to && text.charAt(i + 1) == '\u0307';
+                c = dotted ? 'i' : 0;
+                endsWord = !dotted;
+                if (dotted) {
+                    i++;
+                }
+            } else if (!turkic && (original == '\u0130'
+                    || (lithuanian && (original == '\u00CC' || original == '\u00CD' || original == '\u0128')))) {
+                // Lowercases to i followed by combining marks, which end the word
+                c = 'i';
+                endsWord = true;
+            } else {
+                c = lowerWordChar(original);
+                endsWord = c == 0;
+            }
+
+            if (c != 0) {
+                if (length == word.length) {
+                    word = Arrays.copyOf(word, length << 1);
+                }
+                word[length++] = c;
+                hash = 31 * hash + c;
+            }
+            if (endsWord && length > 0) {
+                counts.increment(word, length, hash);
+                length = 0;
+                hash = 0;
+            }
+        }
+        if (length > 0) {
+            counts.increment(word, length, hash);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the first index at or after {@code from} that holds an ASCII separator,
+     * or {@code to} if there is none. Splitting there can never cut a word, nor
+     * separate a capital I from the combining marks that affect its lowercasing.
+     */
+    private static int nextBoundary(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < 128 && lowerWordChar(c) == 0) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Returns the lowercased form of {@code c} if it is a word character once
+     * lowercased, or 0 if it separates words.
+     */
+    static char lowerWordChar(char c) {
+        if (c < 128) {
+            if (c >= 'A' && c <= 'Z') {
+                return (char) (c + ('a' - 'A'));
+            }
+            return WORD_CHARS[c] ? c : 0;
+        }
+        // A few non-ASCII letters such as KELVIN SIGN lowercase to ASCII word characters
+        char lower = Character.toLowerCase(c);
+        return lower < 128 && WORD_CHARS[lower] ? lower : 0;
+    }
+
+    private static final class CountTask extends RecursiveTask<WordCountMap> {
+        private final CharSequence text;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        CountTask(CharSequence text, int from, int to, int chunkSize) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected WordCountMap compute() {
+            if (to - from <= chunkSize) {
+                return count(text, from, to);
+            }
+            int split = nextBoundary(text, from + (to - from) / 2, to);
+            if (split >= to) {
+                return count(text, from, to);
+            }
+
+            CountTask left = new CountTask(text, from, split, chunkSize);
+            left.fork();
+            WordCountMap right = new CountTask(text, split, to, chunkSize).compute();
+            WordCountMap merged = left.join();
+            if (merged.size() < right.size()) {
+                right.addAll(merged);
+                return right;
+            }
+            merged.addAll(right);
+            return merged;
+        }
+    }
+}
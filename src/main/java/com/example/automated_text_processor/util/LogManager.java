@@ -1,60 +1,447 @@
 package com.example.automated_text_processor.util;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Asynchronous logger. Callers only format the message and enqueue it into a
+ * lock-free ring buffer; a single background thread batches entries into one
+ * long-lived {@link FileChannel}. Pending entries are written on shutdown.
+ * The writer thread also rolls {@code text_processor_yyyy-MM-dd.log} over at
+ * midnight and whenever it grows past the size limit, so rollover never blocks
+ * the threads doing the logging.
+ */
 public class LogManager {
     private static final String LOG_DIR = "logs";
+    static final String OVERFLOW_POLICY_PROPERTY = "textprocessor.log.overflowPolicy";
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    private static LogManager instance;
-    private final Path logFile;
+    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final long DEFAULT_MAX_FILE_SIZE = 100L * 1024 * 1024;
+    private static final int DEFAULT_BUFFER_CAPACITY = 8192;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    public enum Level {
+        PERFORMANCE, METRICS, INFO, ERROR
+    }
+
+    /**
+     * What {@code writeLog} does when the ring buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Wait for the writer thread to make room. */
+        BLOCK,
+        /** Discard the entry. */
+        DROP,
+        /** Discard entries below the configured level and wait for room for the rest. */
+        DROP_BELOW_LEVEL
+    }
+
+    private final Path logDir;
+    private final long maxFileSize;
+    private final LongSupplier clock;
+    private final LogRingBuffer<LogEntry> buffer;
+    private final AtomicLong droppedEntries = new AtomicLong();
+    private final Thread writerThread;
+    private volatile OverflowPolicy overflowPolicy;
+    private volatile Level dropBelowLevel = Level.ERROR;
+    private volatile boolean running = true;
+    private volatile boolean writerParked;
+    private volatile Path logFile;
+
+    // Only touched by the writer thread
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private FileChannel channel;
+    private long fileSize;
+    private long nextRolloverMillis;
+    private long lastTimestampSecond = Long.MIN_VALUE;
+    private String lastTimestamp;
 
     private LogManager() {
+        this(Paths.get(LOG_DIR), Long.getLong("textprocessor.log.maxFileSize", DEFAULT_MAX_FILE_SIZE),
+                Integer.getInteger("textprocessor.log.bufferCapacity", DEFAULT_BUFFER_CAPACITY),
+                configuredOverflowPolicy(), System::currentTimeMillis);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "log-shutdown"));
+    }
+
+    /**
+     * A logger writing to {@code logDir}, for tests; unlike the shared instance it
+     * is not shut down when the JVM exits.
+     *
+     * @param clock the time in epoch milliseconds that entries are stamped and
+     *              files rolled over with
+     */
+    LogManager(Path logDir, long maxFileSize, int bufferCapacity, OverflowPolicy overflowPolicy,
+               LongSupplier clock) {
         try {
             // Create logs directory if it doesn't exist
-            Files.createDirectories(Paths.get(LOG_DIR));
-            logFile = Paths.get(LOG_DIR, "text_processor_" + 
-                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + ".log");
+            this.logDir = Files.createDirectories(logDir);
         } catch (IOException e) {
             throw new RuntimeException("Failed to initialize logging system", e);
         }
+        this.maxFileSize = maxFileSize;
+        this.overflowPolicy = overflowPolicy;
+        this.clock = clock;
+        logFile = dailyLogFile(clock.getAsLong());
+
+        buffer = new LogRingBuffer<>(Integer.highestOneBit(Math.max(2, bufferCapacity)));
+        writerThread = new Thread(this::runWriter, "log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
     }
 
-    public static LogManager getInstance() {
-        if (instance == null) {
-            instance = new LogManager();
+    /**
+     * The overflow policy named by the system property. An unknown name must not
+     * fail the shared instance's initialization, which would disable logging for
+     * the rest of the run, so it falls back to {@link OverflowPolicy#BLOCK}.
+     */
+    static OverflowPolicy configuredOverflowPolicy() {
+        String value = System.getProperty(OVERFLOW_POLICY_PROPERTY, OverflowPolicy.BLOCK.name());
+        try {
+            return OverflowPolicy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown log overflow policy " + value + ", using " + OverflowPolicy.BLOCK);
+            return OverflowPolicy.BLOCK;
         }
-        return instance;
+    }
+
+    public static LogManager getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Sets what happens when the ring buffer is full. With
+     * {@link OverflowPolicy#DROP_BELOW_LEVEL}, entries below {@code minimumLevel}
+     * are dropped and the others wait for room.
+     */
+    public void setOverflowPolicy(OverflowPolicy policy, Level minimumLevel) {
+        this.overflowPolicy = policy;
+        this.dropBelowLevel = minimumLevel;
+    }
+
+    public long getDroppedEntries() {
+        return droppedEntries.get();
     }
 
     public void logInfo(String message) {
-        writeLog("INFO", message);
+        writeLog(Level.INFO, message);
     }
 
     public void logError(String message, Throwable error) {
-        writeLog("ERROR", message + "\n" + getStackTrace(error));
+        writeLog(Level.ERROR, message + "\n" + getStackTrace(error));
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}, a {@link System#nanoTime()}
+     * reading, in the {@code operation} latency histogram and logs it.
+     */
+    public void logPerformance(String operation, long startNanos) {
+        long duration = System.nanoTime() - startNanos;
+        MetricsRegistry.getInstance().histogram(operation).record(duration);
+        writeLog(Level.PERFORMANCE, operation + " completed in " + formatMillis(duration) + "ms");
+    }
+
+    /**
+     * Like {@link #logPerformance(String, long)}, for one {@code subject} (such as a
+     * file name) of an operation; the histogram is kept per operation only.
+     */
+    public void logPerformance(String operation, String subject, long startNanos) {
+        long duration = System.nanoTime() - startNanos;
+        MetricsRegistry.getInstance().histogram(operation).record(duration);
+        writeLog(Level.PERFORMANCE, operation + ": " + subject + " completed in " + formatMillis(duration) + "ms");
+    }
+
+    public void logMetrics(String message) {
+        writeLog(Level.METRICS, message);
+    }
+
+    /**
+     * Blocks until every entry logged before this call has been handed to the OS.
+     */
+    public void flush() {
+        if (!running) {
+            return;
+        }
+        CountDownLatch written = new CountDownLatch(1);
+        if (!enqueue(new LogEntry(0, null, null, written), true) || !running) {
+            // Shutdown began meanwhile, and may have missed the marker
+            drainAfterShutdown();
+            return;
+        }
+        try {
+            written.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes all pending entries and stops the writer thread. Entries logged
+     * afterwards are written synchronously.
+     */
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        drainAfterShutdown();
+    }
+
+    private void writeLog(Level level, String message) {
+        if (!running) {
+            // Let the writer thread finish first, so entries stay in order
+            drainAfterShutdown();
+            writeDirect(format(new LogEntry(clock.getAsLong(), level, message, null)));
+            return;
+        }
+        LogEntry entry = new LogEntry(clock.getAsLong(), level, message, null);
+        OverflowPolicy policy = overflowPolicy;
+        boolean mustWait = policy == OverflowPolicy.BLOCK
+                || (policy == OverflowPolicy.DROP_BELOW_LEVEL && level.compareTo(dropBelowLevel) >= 0);
+        boolean queued = enqueue(entry, mustWait);
+        if (running) {
+            if (!queued) {
+                droppedEntries.incrementAndGet();
+            }
+            return;
+        }
+        // Shutdown began while the entry was being queued, and the writer thread may
+        // have exited without seeing it
+        drainAfterShutdown();
+        if (!queued) {
+            writeDirect(format(entry));
+        }
+    }
+
+    /**
+     * Waits for the writer thread to exit, then writes whatever is still queued,
+     * such as entries that producers queued after the writer's last look. Only runs
+     * once the writer is gone, so it is then the buffer's only consumer.
+     */
+    private synchronized void drainAfterShutdown() {
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (writerThread.isAlive()) {
+            return;
+        }
+        LogEntry entry;
+        while ((entry = buffer.poll()) != null) {
+            if (entry.written() != null) {
+                entry.written().countDown();
+            } else {
+                writeDirect(format(entry));
+            }
+        }
+    }
+
+    private boolean enqueue(LogEntry entry, boolean mustWait) {
+        while (!buffer.offer(entry)) {
+            if (!mustWait || !running) {
+                return false;
+            }
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        if (writerParked) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    private void runWriter() {
+        long reportedDrops = 0;
+        while (true) {
+            boolean stopping = !running;
+            int written = drain();
+            long dropped = droppedEntries.get();
+            if (dropped > reportedDrops) {
+                LogEntry warning = new LogEntry(clock.getAsLong(), Level.ERROR,
+                        (dropped - reportedDrops) + " log entries dropped because the log buffer was full", null);
+                append(format(warning), warning.timestamp());
+                flushWriteBuffer();
+                reportedDrops = dropped;
+            }
+            if (stopping && buffer.isEmpty()) {
+                break;
+            }
+            if (written == 0) {
+                writerParked = true;
+                if (buffer.isEmpty() && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                } else {
+                    Thread.onSpinWait();
+                }
+                writerParked = false;
+            }
+        }
+        closeChannel();
+    }
+
+    private int drain() {
+        int count = 0;
+        LogEntry entry;
+        while ((entry = buffer.poll()) != null) {
+            if (entry.written() != null) {
+                flushWriteBuffer();
+                entry.written().countDown();
+            } else {
+                append(format(entry), entry.timestamp());
+            }
+            count++;
+        }
+        if (count > 0) {
+            flushWriteBuffer();
+        }
+        return count;
+    }
+
+    private String format(LogEntry entry) {
+        return "[" + formatTimestamp(entry.timestamp()) + "] [" + entry.level() + "] " + entry.message()
+                + System.lineSeparator();
+    }
+
+    private String formatTimestamp(long timestamp) {
+        long second = timestamp / 1000;
+        // The per-second cache belongs to the writer thread; synchronous writes after shutdown skip it
+        if (Thread.currentThread() == writerThread && second == lastTimestampSecond) {
+            return lastTimestamp;
+        }
+        String formatted = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault())
+                .format(DATE_FORMAT);
+        if (Thread.currentThread() == writerThread) {
+            lastTimestampSecond = second;
+            lastTimestamp = formatted;
+        }
+        return formatted;
     }
 
-    public void logPerformance(String operation, long startTime) {
-        long duration = System.currentTimeMillis() - startTime;
-        writeLog("PERFORMANCE", operation + " completed in " + duration + "ms");
+    private void append(String line, long timestamp) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        rollIfNeeded(timestamp, bytes.length);
+        if (bytes.length > writeBuffer.remaining()) {
+            flushWriteBuffer();
+        }
+        if (bytes.length > writeBuffer.capacity()) {
+            writeFully(ByteBuffer.wrap(bytes));
+        } else {
+            writeBuffer.put(bytes);
+        }
     }
 
-    private void writeLog(String level, String message) {
-        String logEntry = String.format("[%s] [%s] %s%n",
-                LocalDateTime.now().format(DATE_FORMAT),
-                level,
-                message);
+    private void flushWriteBuffer() {
+        writeBuffer.flip();
+        writeFully(writeBuffer);
+        writeBuffer.clear();
+    }
 
+    private void writeFully(ByteBuffer bytes) {
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+                fileSize = channel.size();
+            }
+            while (bytes.hasRemaining()) {
+                fileSize += channel.write(bytes);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write to log file: " + e.getMessage());
+            bytes.position(bytes.limit());
+            closeChannel();
+        }
+    }
+
+    /**
+     * Switches to a new file before writing an entry from a new day, or archives the
+     * current file as {@code text_processor_yyyy-MM-dd.N.log} once the entry would
+     * push it past the size limit.
+     */
+    private void rollIfNeeded(long timestamp, int incomingBytes) {
+        if (timestamp >= nextRolloverMillis) {
+            flushWriteBuffer();
+            closeChannel();
+            logFile = dailyLogFile(timestamp);
+            return;
+        }
+        long pendingSize = currentFileSize() + writeBuffer.position();
+        if (pendingSize > 0 && pendingSize + incomingBytes > maxFileSize) {
+            flushWriteBuffer();
+            closeChannel();
+            try {
+                Files.move(logFile, archiveFileFor(logFile));
+            } catch (IOException e) {
+                System.err.println("Failed to roll log file: " + e.getMessage());
+            }
+        }
+    }
+
+    private long currentFileSize() {
+        if (channel != null) {
+            return fileSize;
+        }
+        try {
+            return Files.exists(logFile) ? Files.size(logFile) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private Path dailyLogFile(long timestamp) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate date = Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate();
+        nextRolloverMillis = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return logDir.resolve("text_processor_" + date.format(FILE_DATE_FORMAT) + ".log");
+    }
+
+    private static Path archiveFileFor(Path file) {
+        String name = file.getFileName().toString();
+        String base = name.substring(0, name.length() - ".log".length());
+        for (int index = 1; ; index++) {
+            Path candidate = file.resolveSibling(base + "." + index + ".log");
+            if (!Files.exists(candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close log file: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    private synchronized void writeDirect(String logEntry) {
         try {
             Files.write(logFile,
-                    logEntry.getBytes(),
+                    logEntry.getBytes(StandardCharsets.UTF_8),
                     StandardOpenOption.CREATE,
                     StandardOpenOption.APPEND);
         } catch (IOException e) {
@@ -62,6 +449,10 @@ public class LogManager {
         }
     }
 
+    private static String formatMillis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+
     private String getStackTrace(Throwable error) {
         StringBuilder sb = new StringBuilder();
         sb.append(error.toString()).append("\n");
@@ -70,4 +461,14 @@ public class LogManager {
         }
         return sb.toString();
     }
-} 
\ No newline at end of file
+
+    private static final class Holder {
+        private static final LogManager INSTANCE = new LogManager();
+    }
+
+    /**
+     * A queued log line; {@code written} is only set on flush markers.
+     */
+    private record LogEntry(long timestamp, Level level, String message, CountDownLatch written) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.automated_text_processor.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide counters, gauges and latency histograms keyed by operation name.
+ * A daemon thread periodically writes p50/p99/p999 summaries to the log and the
+ * full snapshot to {@code logs/metrics.json}.
+ */
+public class MetricsRegistry {
+    private static final Path METRICS_FILE = Paths.get("logs", "metrics.json");
+    private static final long DEFAULT_REPORT_INTERVAL_SECONDS = 60;
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+        long interval = Long.getLong("textprocessor.metrics.reportIntervalSeconds", DEFAULT_REPORT_INTERVAL_SECONDS);
+        if (interval > 0) {
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(this::report, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    public static MetricsRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Registers (or replaces) a gauge that is sampled at every report.
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Removes the gauge {@code name} if it is still {@code value}, so whatever the
+     * supplier refers to can be collected.
+     */
+    public void removeGauge(String name, LongSupplier value) {
+        gauges.remove(name, value);
+    }
+
+    LongSupplier getGauge(String name) {
+        return gauges.get(name);
+    }
+
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Writes the current summaries to the log and to {@code logs/metrics.json}.
+     */
+    public void report() {
+        LogManager logManager = LogManager.getInstance();
+        Map<String, LatencyHistogram> sortedHistograms = new TreeMap<>(histograms);
+        for (LatencyHistogram histogram : sortedHistograms.values()) {
+            if (histogram.getCount() > 0) {
+                logManager.logMetrics(String.format("%s: count=%d mean=%.3fms p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms",
+                        histogram.getName(), histogram.getCount(), histogram.getMean() / 1e6,
+                        histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+                        histogram.getValueAtPercentile(99.9) / 1e6, histogram.getMax() / 1e6));
+            }
+        }
+
+        try {
+            Path temp = METRICS_FILE.resolveSibling(METRICS_FILE.getFileName() + ".tmp");
+            Files.createDirectories(METRICS_FILE.getParent());
+            Files.writeString(temp, toJson(sortedHistograms));
+            Files.move(temp, METRICS_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logManager.logError("Failed to write metrics file", e);
+        }
+    }
+
+    private String toJson(Map<String, LatencyHistogram> sortedHistograms) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"timestamp\": \"").append(Instant.now()).append("\",\n  \"counters\": {");
+        String separator = "";
+        for (Map.Entry<String, LongAdder> counter : new TreeMap<>(counters).entrySet()) {
+            json.append(separator).append("\n    ").append(quote(counter.getKey())).append(": ")
+                    .append(counter.getValue().sum());
+            separator = ",";
+        }
+        json.append("\n  },\n  \"gauges\": {");
+        separator = "";
+        for (Map.Entry<String, LongSupplier> gauge : new TreeMap<>(gauges).entrySet()) {
+            json.append(separator).append("\n    ").append(quote(gauge.getKey())).append(": ")
+                    .append(gauge.getValue().getAsLong());
+            separator = ",";
+        }
+        json.append("\n  },\n  \"histograms\": {");
+        separator = "";
+        for (LatencyHistogram histogram : sortedHistograms.values()) {
+            json.append(separator).append("\n    ").append(quote(histogram.getName())).append(": {")
+                    .append("\"unit\": \"ns\", ")
+                    .append("\"count\": ").append(histogram.getCount()).append(", ")
+                    .append("\"mean\": ").append(Math.round(histogram.getMean())).append(", ")
+                    .append("\"p50\": ").append(histogram.getValueAtPercentile(50)).append(", ")
+                    .append("\"p99\": ").append(histogram.getValueAtPercentile(99)).append(", ")
+                    .append("\"p999\": ").append(histogram.getValueAtPercentile(99.9)).append(", ")
+                    .append("\"max\": ").append(histogram.getMax()).append("}");
+            separator = ",";
+        }
+        json.append("\n  }\n}\n");
+        return json.toString();
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static final class Holder {
+        private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.automated_text_processor.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded LRU cache of compiled regular expressions, shared by every search and
+ * replace path so a pattern is compiled once per batch instead of once per file.
+ */
+public class PatternCache {
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final PatternCache INSTANCE = new PatternCache(DEFAULT_CAPACITY);
+
+    private final int capacity;
+    private final Map<Key, Pattern> patterns;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PatternCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.patterns = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Pattern> eldest) {
+                return size() > PatternCache.this.capacity;
+            }
+        };
+    }
+
+    public static PatternCache getInstance() {
+        return INSTANCE;
+    }
+
+    public Pattern get(String regex) {
+        return get(regex, 0);
+    }
+
+    public Pattern get(String regex, int flags) {
+        Key key = new Key(regex, flags);
+        synchronized (patterns) {
+            Pattern cached = patterns.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+
+        // Compile outside the lock so a slow pattern does not stall other threads;
+        // a concurrent miss on the same key just compiles it twice.
+        Pattern compiled = Pattern.compile(regex, flags);
+        misses.incrementAndGet();
+        synchronized (patterns) {
+            Pattern raced = patterns.putIfAbsent(key, compiled);
+            return raced != null ? raced : compiled;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (patterns) {
+            return patterns.size();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        synchronized (patterns) {
+            patterns.clear();
+        }
+    }
+
+    private record Key(String regex, int flags) {
+    }
+}
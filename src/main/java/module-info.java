@@ -6,4 +6,5 @@ module com.example.automated_text_processor {
     opens com.example.automated_text_processor.controller to javafx.fxml;
     exports com.example.automated_text_processor;
     exports com.example.automated_text_processor.controller;
+    exports com.example.automated_text_processor.cli;
 }
\ No newline at end of file
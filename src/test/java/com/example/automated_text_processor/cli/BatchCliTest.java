@@ -0,0 +1,159 @@
+package com.example.automated_text_processor.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BatchCliTest {
+    @TempDir
+    Path dir;
+
+    private Path input;
+    private Path output;
+    private final List<Thread> hooks = new ArrayList<>();
+
+    @BeforeEach
+    void createInput() throws IOException {
+        input = Files.createDirectories(dir.resolve("in"));
+        output = dir.resolve("out");
+        Files.writeString(input.resolve("a.txt"), "a 1");
+    }
+
+    @Test
+    void successfulRunExitsWithZero() throws IOException {
+        assertEquals(0, execute("--input", input.toString(), "--output", output.toString(),
+                "--pattern", "\\d", "--replacement", "#"));
+        assertEquals("a #", Files.readString(output.resolve("processed_a.txt")));
+        assertTrue(hooks.isEmpty());
+    }
+
+    @Test
+    void helpExitsWithZeroWithoutRunning() {
+        assertEquals(0, execute("--input", input.toString(), "--output", output.toString(), "--help"));
+        assertFalse(Files.exists(output));
+    }
+
+    @Test
+    void invalidArgumentsExitWithTwo() {
+        String[] common = {"--input", input.toString(), "--output", output.toString(), "--pattern", "\\d"};
+        assertEquals(2, execute("--input", input.toString(), "--pattern", "\\d"));
+        assertEquals(2, execute("--input", input.toString(), "--output", output.toString(), "--pattern", ""));
+        assertEquals(2, execute(append(common, "--bogus", "1")));
+        assertEquals(2, execute(append(common, "--threads")));
+        assertEquals(2, execute(append(common, "stray")));
+        assertEquals(2, execute(append(common, "--threads", "0")));
+        assertEquals(2, execute(append(common, "--threads", "many")));
+        assertEquals(2, execute(append(common, "--max-depth", "-1")));
+        assertEquals(2, execute(append(common, "--debounce-ms", "-1")));
+        assertEquals(2, execute(append(common, "--max-size", "-5")));
+        assertEquals(2, execute(append(common, "--max-size", "9999999999G")));
+        assertEquals(2, execute(append(common, "--modified-after", "yesterday")));
+        assertEquals(2, execute(append(common, "--mode", "green")));
+        assertEquals(2, execute(append(common, "--include", "regex:[")));
+        assertFalse(Files.exists(output));
+    }
+
+    @Test
+    void failedFilesExitWithOne() throws IOException {
+        // Both inputs map to processed_a.txt, so the second one fails
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(input.resolve("a.txt.gz")))) {
+            out.write("b 2".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(1, execute("--input", input.toString(), "--output", output.toString(), "--pattern", "\\d"));
+    }
+
+    @Test
+    void optionsAreApplied() throws IOException {
+        Files.writeString(input.resolve("b.log"), "b 2");
+        Files.writeString(input.resolve("skip.txt"), "c 3");
+        Files.writeString(input.resolve("big.txt"), "d 4".repeat(1000));
+
+        assertEquals(0, execute("--input", input.toString(), "--output", output.toString(), "--pattern", "\\d",
+                "--replacement", "#", "--include", "*.txt", "--include", "glob:*.log", "--exclude", "skip.*",
+                "--max-size", "1K", "--compress-output", "--mode", "VIRTUAL", "--threads", "2"));
+
+        assertEquals("a #", readGzip(output.resolve("processed_a.txt.gz")));
+        assertEquals("b #", readGzip(output.resolve("processed_b.log.gz")));
+        assertFalse(Files.exists(output.resolve("processed_skip.txt.gz")));
+        assertFalse(Files.exists(output.resolve("processed_big.txt.gz")));
+    }
+
+    @Test
+    void maxDepthLimitsTheWalk() throws IOException {
+        Files.writeString(Files.createDirectories(input.resolve("sub")).resolve("b.txt"), "b 2");
+
+        assertEquals(0, execute("--input", input.toString(), "--output", output.toString(), "--pattern", "\\d",
+                "--max-depth", "1"));
+
+        assertTrue(Files.exists(output.resolve("processed_a.txt")));
+        assertFalse(Files.exists(output.resolve("sub/processed_b.txt")));
+    }
+
+    @Test
+    void shutdownHookStopsWatchModeAfterCleanup() throws Exception {
+        LinkedBlockingQueue<Thread> registered = new LinkedBlockingQueue<>();
+        BatchCli cli = new BatchCli(registered::add);
+        ExecutorService runner = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> status = runner.submit(() -> cli.execute(new String[]{"--input", input.toString(),
+                    "--output", output.toString(), "--pattern", "\\d", "--replacement", "#", "--watch",
+                    "--debounce-ms", "0"}));
+            Thread hook = registered.poll(30, TimeUnit.SECONDS);
+            assertNotNull(hook, "watch mode did not register a shutdown hook");
+            assertEquals("a #", Files.readString(output.resolve("processed_a.txt")));
+
+            Files.writeString(input.resolve("b.txt"), "b 2");
+            Path processed = output.resolve("processed_b.txt");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (!Files.exists(processed) && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(Files.exists(processed), "watch mode did not process a new file");
+            assertFalse(status.isDone());
+
+            // The hook returns only once the run has finished its cleanup
+            hook.run();
+            assertEquals(0, status.get(10, TimeUnit.SECONDS));
+        } finally {
+            runner.shutdownNow();
+            runner.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private int execute(String... args) {
+        return new BatchCli(hooks::add).execute(args);
+    }
+
+    private static String[] append(String[] args, String... more) {
+        String[] all = new String[args.length + more.length];
+        System.arraycopy(args, 0, all, 0, args.length);
+        System.arraycopy(more, 0, all, args.length, more.length);
+        return all;
+    }
+
+    private static String readGzip(Path file) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
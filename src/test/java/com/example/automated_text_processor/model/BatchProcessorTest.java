@@ -0,0 +1,186 @@
+package com.example.automated_text_processor.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BatchProcessorTest {
+    @TempDir
+    Path dir;
+
+    private final BatchProcessor batchProcessor = new BatchProcessor(2);
+    private final List<FileSummary> summaries = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void shutDown() {
+        batchProcessor.shutdown();
+    }
+
+    @Test
+    void gzipInputDoesNotOverwritePlainOutput() throws IOException {
+        Path input = Files.createDirectories(dir.resolve("in"));
+        Files.writeString(input.resolve("a.txt"), "plain 1");
+        writeGzip(input.resolve("a.txt.gz"), "compressed 2");
+
+        BatchReport report = process(input);
+
+        assertEquals(1, report.filesProcessed());
+        assertEquals(1, report.filesFailed());
+        assertEquals("plain #", Files.readString(dir.resolve("out/processed_a.txt")));
+        assertFailed(input.resolve("a.txt.gz"));
+    }
+
+    @Test
+    void gzipInputDoesNotOverwritePlainCompressedOutput() throws IOException {
+        Path input = Files.createDirectories(dir.resolve("in"));
+        Files.writeString(input.resolve("a.txt"), "plain 1");
+        writeGzip(input.resolve("a.txt.gz"), "compressed 2");
+        batchProcessor.setCompressOutput(true);
+
+        process(input);
+
+        assertEquals("plain #", readGzip(dir.resolve("out/processed_a.txt.gz")));
+        assertFailed(input.resolve("a.txt.gz"));
+    }
+
+    @Test
+    void archiveDoesNotWriteOverPlainOutput() throws IOException {
+        Path input = Files.createDirectories(dir.resolve("in"));
+        Files.writeString(input.resolve("x"), "plain 1");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(input.resolve("x.zip")))) {
+            zip.putNextEntry(new ZipEntry("entry.txt"));
+            zip.write("archived 2".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        batchProcessor.setFileSelector(FileSelector.builder().include("glob:*").build());
+
+        process(input);
+
+        assertEquals("plain #", Files.readString(dir.resolve("out/processed_x")));
+        assertFailed(input.resolve("x.zip"));
+    }
+
+    @Test
+    void distinctOutputsAreAllWritten() throws IOException {
+        Path input = Files.createDirectories(dir.resolve("in"));
+        Files.writeString(input.resolve("a.txt"), "plain 1");
+        writeGzip(input.resolve("b.txt.gz"), "compressed 2");
+
+        BatchReport report = process(input);
+
+        assertEquals(0, report.filesFailed());
+        assertEquals("plain #", Files.readString(dir.resolve("out/processed_a.txt")));
+        assertEquals("compressed #", Files.readString(dir.resolve("out/processed_b.txt")));
+    }
+
+    @Test
+    void zeroStreamingThresholdStreamsEveryFile() throws IOException {
+        Path input = Files.createDirectories(dir.resolve("in"));
+        Files.writeString(input.resolve("a.txt"), "plain 1");
+        writeGzip(input.resolve("b.txt.gz"), "compressed 2");
+        batchProcessor.setStreamingThreshold(0);
+
+        BatchReport report = process(input);
+
+        assertEquals(0, report.filesFailed());
+        assertEquals("plain #", Files.readString(dir.resolve("out/processed_a.txt")));
+        assertEquals("compressed #", Files.readString(dir.resolve("out/processed_b.txt")));
+    }
+
+    @Test
+    void negativeStreamingThresholdIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> batchProcessor.setStreamingThreshold(-1));
+    }
+
+    @Test
+    void unchangedFilesAreSkippedByAnIncrementalRun() throws IOException {
+        Path input = Files.createDirectories(dir.resolve("in"));
+        Files.writeString(input.resolve("a.txt"), "plain 1");
+        Files.writeString(input.resolve("b.txt"), "plain 2");
+        batchProcessor.setIncremental(true);
+
+        assertEquals(2, process(input).filesProcessed());
+        Files.writeString(input.resolve("b.txt"), "changed 3");
+        BatchReport report = process(input);
+
+        assertEquals(1, report.filesProcessed());
+        assertEquals(1, report.filesUnchanged());
+        assertEquals("changed #", Files.readString(dir.resolve("out/processed_b.txt")));
+    }
+
+    @Test
+    void changedSettingsReprocessEveryFile() throws IOException {
+        Path input = Files.createDirectories(dir.resolve("in"));
+        Files.writeString(input.resolve("a.txt"), "plain 1");
+        batchProcessor.setIncremental(true);
+
+        process(input);
+        batchProcessor.setSplitThreshold(1 << 20);
+        BatchReport report = process(input);
+
+        assertEquals(1, report.filesProcessed());
+        assertEquals(0, report.filesUnchanged());
+    }
+
+    @Test
+    void entriesOfSkippedPathsAreKept() throws IOException {
+        Path input = Files.createDirectories(dir.resolve("in"));
+        Files.writeString(input.resolve("a.txt"), "plain 1");
+        Files.writeString(Files.createDirectories(input.resolve("sub")).resolve("b.txt"), "plain 2");
+        batchProcessor.setIncremental(true);
+        batchProcessor.setFollowLinks(true);
+        process(input);
+
+        // The loop makes the second run incomplete, so b's entry must survive it
+        Files.move(input.resolve("sub"), dir.resolve("moved"));
+        Files.createSymbolicLink(input.resolve("loop"), input);
+        BatchReport incomplete = process(input);
+        assertTrue(incomplete.pathsSkipped() > 0);
+
+        Files.delete(input.resolve("loop"));
+        Files.move(dir.resolve("moved"), input.resolve("sub"));
+        BatchReport report = process(input);
+
+        assertEquals(0, report.filesProcessed());
+        assertEquals(2, report.filesUnchanged());
+    }
+
+    private BatchReport process(Path input) {
+        return batchProcessor.processDirectory(input.toString(), "\\d", "#", dir.resolve("out").toString(),
+                summaries::add);
+    }
+
+    private void assertFailed(Path path) {
+        FileSummary summary = summaries.stream().filter(s -> s.path().equals(path)).findFirst().orElseThrow();
+        assertFalse(summary.isSuccess());
+        assertTrue(summary.error().contains("already written"), summary.error());
+    }
+
+    private static void writeGzip(Path file, String content) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String readGzip(Path file) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.automated_text_processor.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DirectoryWalkerTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void maxDepthLimitsBothWalks() throws IOException {
+        Files.writeString(dir.resolve("a.txt"), "");
+        Files.writeString(Files.createDirectories(dir.resolve("b")).resolve("b.txt"), "");
+        Files.writeString(Files.createDirectories(dir.resolve("b/c")).resolve("c.txt"), "");
+
+        for (int parallelism : new int[]{1, 3}) {
+            assertEquals(Set.of(), walk(0, false, parallelism), "depth 0, parallelism " + parallelism);
+            assertEquals(Set.of("a.txt"), walk(1, false, parallelism), "depth 1, parallelism " + parallelism);
+            assertEquals(Set.of("a.txt", "b/b.txt"), walk(2, false, parallelism));
+            assertEquals(Set.of("a.txt", "b/b.txt", "b/c/c.txt"), walk(Integer.MAX_VALUE, false, parallelism));
+        }
+    }
+
+    @Test
+    void linksBackToAnAncestorAreSkippedAsLoops() throws IOException {
+        Path sub = Files.createDirectories(dir.resolve("sub/deeper"));
+        Files.writeString(sub.resolve("a.txt"), "");
+        Files.createSymbolicLink(sub.resolve("up"), dir.resolve("sub"));
+        Files.createSymbolicLink(dir.resolve("top"), dir);
+        // A link to a directory elsewhere in the tree is not a loop and is walked again
+        Files.createSymbolicLink(dir.resolve("again"), sub);
+
+        for (int parallelism : new int[]{1, 3}) {
+            Set<String> visited = new ConcurrentSkipListSet<>();
+            DirectoryWalker.Stats stats = new DirectoryWalker(Integer.MAX_VALUE, true, parallelism)
+                    .walk(dir, (file, attrs) -> visited.add(relative(file)));
+
+            assertEquals(Set.of("sub/deeper/a.txt", "again/a.txt"), visited, "parallelism " + parallelism);
+            assertEquals(3, stats.loops(), "parallelism " + parallelism);
+            assertEquals(0, stats.skippedDirectories() + stats.failedEntries());
+        }
+    }
+
+    @Test
+    void linksAreNotFollowedByDefault() throws IOException {
+        Path sub = Files.createDirectories(dir.resolve("sub"));
+        Files.writeString(sub.resolve("a.txt"), "");
+        Files.createSymbolicLink(dir.resolve("link"), sub);
+
+        for (int parallelism : new int[]{1, 3}) {
+            // The link itself is handed over, as walkFileTree does
+            assertEquals(Set.of("link", "sub/a.txt"), walk(Integer.MAX_VALUE, false, parallelism));
+        }
+    }
+
+    @Test
+    void unreadableDirectoriesAreSkipped() throws IOException {
+        Files.writeString(dir.resolve("a.txt"), "");
+        Path locked = Files.createDirectories(dir.resolve("locked"));
+        Files.writeString(locked.resolve("hidden.txt"), "");
+        Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("---------"));
+        try {
+            assumeFalse(Files.isReadable(locked), "permissions are not enforced for this user");
+
+            for (int parallelism : new int[]{1, 3}) {
+                Set<String> visited = new ConcurrentSkipListSet<>();
+                DirectoryWalker.Stats stats = new DirectoryWalker(Integer.MAX_VALUE, false, parallelism)
+                        .walk(dir, (file, attrs) -> visited.add(relative(file)));
+
+                assertEquals(Set.of("a.txt"), visited, "parallelism " + parallelism);
+                assertEquals(1, stats.skippedDirectories(), "parallelism " + parallelism);
+                assertEquals(1, stats.skipped());
+            }
+        } finally {
+            Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("rwx------"));
+        }
+    }
+
+    @Test
+    void missingRootEndsTheWalk() {
+        for (int parallelism : new int[]{1, 3}) {
+            DirectoryWalker walker = new DirectoryWalker(Integer.MAX_VALUE, false, parallelism);
+            assertThrows(NoSuchFileException.class, () -> walker.walk(dir.resolve("missing"), (file, attrs) -> { }));
+        }
+    }
+
+    @Test
+    void visitorFailureEndsTheParallelWalk() throws IOException {
+        Files.writeString(Files.createDirectories(dir.resolve("sub")).resolve("a.txt"), "");
+        DirectoryWalker walker = new DirectoryWalker(Integer.MAX_VALUE, false, 3);
+
+        IOException thrown = assertThrows(IOException.class, () -> walker.walk(dir, (file, attrs) -> {
+            throw new IOException("visitor failed");
+        }));
+        assertEquals("visitor failed", thrown.getMessage());
+    }
+
+    @Test
+    void parallelWalkFindsTheSameFilesAsTheSequentialOne() throws IOException {
+        Random random = new Random(7);
+        for (int round = 0; round < 5; round++) {
+            Path root = Files.createDirectories(dir.resolve("tree" + round));
+            createTree(root, random, 0);
+            Files.createSymbolicLink(root.resolve("loop"), root);
+            for (boolean followLinks : new boolean[]{false, true}) {
+                for (int maxDepth : new int[]{1, 3, Integer.MAX_VALUE}) {
+                    Set<String> sequentialFiles = new TreeSet<>();
+                    DirectoryWalker.Stats sequential = new DirectoryWalker(maxDepth, followLinks, 1)
+                            .walk(root, (file, attrs) -> sequentialFiles.add(root.relativize(file).toString()));
+                    Set<String> parallelFiles = new ConcurrentSkipListSet<>();
+                    DirectoryWalker.Stats parallel = new DirectoryWalker(maxDepth, followLinks, 4)
+                            .walk(root, (file, attrs) -> parallelFiles.add(root.relativize(file).toString()));
+
+                    String context = "round " + round + ", follow " + followLinks + ", depth " + maxDepth;
+                    assertEquals(sequentialFiles, parallelFiles, context);
+                    assertEquals(sequential, parallel, context);
+                }
+            }
+        }
+    }
+
+    private static void createTree(Path dir, Random random, int depth) throws IOException {
+        int files = random.nextInt(4);
+        for (int i = 0; i < files; i++) {
+            Files.writeString(dir.resolve("f" + i + ".txt"), "");
+        }
+        if (depth < 4) {
+            int subdirectories = random.nextInt(4);
+            for (int i = 0; i < subdirectories; i++) {
+                createTree(Files.createDirectory(dir.resolve("d" + i)), random, depth + 1);
+            }
+        }
+    }
+
+    private Set<String> walk(int maxDepth, boolean followLinks, int parallelism) throws IOException {
+        Set<String> visited = new ConcurrentSkipListSet<>();
+        new DirectoryWalker(maxDepth, followLinks, parallelism).walk(dir, (file, attrs) -> visited.add(relative(file)));
+        return visited;
+    }
+
+    private String relative(Path file) {
+        return dir.relativize(file).toString();
+    }
+}
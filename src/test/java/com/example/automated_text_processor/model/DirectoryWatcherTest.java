@@ -0,0 +1,164 @@
+package com.example.automated_text_processor.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DirectoryWatcherTest {
+    private static final WatchEvent<Object> OVERFLOW = new WatchEvent<>() {
+        @Override
+        public Kind<Object> kind() {
+            return StandardWatchEventKinds.OVERFLOW;
+        }
+
+        @Override
+        public int count() {
+            return 1;
+        }
+
+        @Override
+        public Object context() {
+            return null;
+        }
+    };
+
+    @TempDir
+    Path dir;
+
+    private final BlockingQueue<Change> changes = new LinkedBlockingQueue<>();
+    private DirectoryWatcher watcher;
+
+    private record Change(Path file, long firstEventNanos, long handledNanos) {
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    @Test
+    void burstOfWritesIsHandledOnceAfterTheDebounce() throws Exception {
+        watch(1000);
+        Path file = dir.resolve("a.txt");
+
+        long firstWrite = System.nanoTime();
+        long lastWrite = firstWrite;
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(20);
+            // Taken before the write, as the watcher may see its events before it returns
+            lastWrite = System.nanoTime();
+            Files.writeString(file, "version " + i);
+        }
+
+        Change change = changes.poll(30, TimeUnit.SECONDS);
+        assertNotNull(change);
+        assertEquals(file, change.file());
+        assertTrue(change.firstEventNanos() >= firstWrite);
+        assertTrue(change.handledNanos() - lastWrite >= TimeUnit.MILLISECONDS.toNanos(1000));
+        assertNull(changes.poll(1500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void excludedFilesAreIgnored() throws Exception {
+        watch(0);
+
+        Files.writeString(dir.resolve("a.log"), "ignored");
+        Files.writeString(dir.resolve("b.txt"), "reported");
+
+        assertEquals(dir.resolve("b.txt"), changes.poll(30, TimeUnit.SECONDS).file());
+        assertNull(changes.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void newDirectoriesAreWatched() throws Exception {
+        watch(0);
+
+        // Created before the watcher can register it, so found by the scan of the new directory
+        Path nested = Files.createDirectories(dir.resolve("new/deeper"));
+        Files.writeString(nested.resolve("a.txt"), "early");
+        assertEquals(nested.resolve("a.txt"), changes.poll(30, TimeUnit.SECONDS).file());
+
+        Files.writeString(nested.resolve("b.txt"), "late");
+        Change change = changes.poll(30, TimeUnit.SECONDS);
+        // The first file can be reported again if its write events arrive after the scan
+        while (change != null && change.file().equals(nested.resolve("a.txt"))) {
+            change = changes.poll(30, TimeUnit.SECONDS);
+        }
+        assertNotNull(change);
+        assertEquals(nested.resolve("b.txt"), change.file());
+    }
+
+    @Test
+    void overflowRescansTheWholeTree() throws Exception {
+        Files.writeString(dir.resolve("a.txt"), "");
+        watcher = newWatcher(0);
+        // Missed by the watch service, as if its events had been dropped
+        Path missed = Files.createDirectories(dir.resolve("missed"));
+        Files.writeString(missed.resolve("b.txt"), "");
+
+        watcher.handleEvent(null, OVERFLOW);
+        watcher.dispatchDue();
+
+        Set<Path> reported = new HashSet<>();
+        for (Change change : List.copyOf(changes)) {
+            reported.add(change.file());
+        }
+        assertEquals(Set.of(dir.resolve("a.txt"), missed.resolve("b.txt")), reported);
+        changes.clear();
+
+        // The rescan registered the directory it found
+        watcher.start();
+        Files.writeString(missed.resolve("c.txt"), "");
+        Change change = changes.poll(30, TimeUnit.SECONDS);
+        // The queued events of the directory's creation report b.txt once more
+        while (change != null && change.file().equals(missed.resolve("b.txt"))) {
+            change = changes.poll(30, TimeUnit.SECONDS);
+        }
+        assertNotNull(change);
+        assertEquals(missed.resolve("c.txt"), change.file());
+    }
+
+    @Test
+    void pendingChangesAreDroppedOnClose() throws Exception {
+        watch(60_000);
+        Files.writeString(dir.resolve("a.txt"), "");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (watcher.getQueueDepth() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, watcher.getQueueDepth());
+
+        watcher.close();
+
+        assertTrue(changes.isEmpty());
+    }
+
+    private void watch(long debounceMillis) throws IOException {
+        watcher = newWatcher(debounceMillis);
+        watcher.start();
+    }
+
+    private DirectoryWatcher newWatcher(long debounceMillis) throws IOException {
+        return new DirectoryWatcher(dir, debounceMillis, false, file -> file.toString().endsWith(".txt"),
+                (file, attrs, firstEventNanos) -> changes.add(new Change(file, firstEventNanos, System.nanoTime())),
+                () -> { });
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.automated_text_processor.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileManifestTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void entriesSurviveASaveAndLoad() throws IOException {
+        FileManifest manifest = FileManifest.load(dir);
+        List<String> keys = List.of("a.txt", "sub dir/tab\there.txt", "new\nline\r.txt", "back\\slash\\t.txt",
+                "ünïcödé/日本.txt", "trailing\\");
+        for (int i = 0; i < keys.size(); i++) {
+            manifest.put(keys.get(i), entry(i, "out/" + keys.get(i)));
+        }
+        manifest.save(true);
+
+        FileManifest loaded = FileManifest.load(dir);
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(entry(i, "out/" + keys.get(i)), loaded.previous(keys.get(i)), keys.get(i));
+        }
+    }
+
+    @Test
+    void completeSaveDropsEntriesNotSeenAgain() throws IOException {
+        FileManifest first = FileManifest.load(dir);
+        first.put("kept.txt", entry(1, "processed_kept.txt"));
+        first.put("gone.txt", entry(2, "processed_gone.txt"));
+        first.save(true);
+
+        FileManifest second = FileManifest.load(dir);
+        second.put("kept.txt", entry(3, "processed_kept.txt"));
+        second.save(true);
+
+        FileManifest loaded = FileManifest.load(dir);
+        assertEquals(entry(3, "processed_kept.txt"), loaded.previous("kept.txt"));
+        assertNull(loaded.previous("gone.txt"));
+    }
+
+    @Test
+    void incompleteSaveKeepsEntriesNotSeenAgain() throws IOException {
+        FileManifest first = FileManifest.load(dir);
+        first.put("kept.txt", entry(1, "processed_kept.txt"));
+        first.put("unreached.txt", entry(2, "processed_unreached.txt"));
+        first.save(true);
+
+        FileManifest second = FileManifest.load(dir);
+        second.put("kept.txt", entry(3, "processed_kept.txt"));
+        second.save(false);
+
+        FileManifest loaded = FileManifest.load(dir);
+        assertEquals(entry(3, "processed_kept.txt"), loaded.previous("kept.txt"));
+        assertEquals(entry(2, "processed_unreached.txt"), loaded.previous("unreached.txt"));
+        assertEquals(3, Files.readAllLines(dir.resolve(FileManifest.FILE_NAME)).size());
+    }
+
+    @Test
+    void unreadableLinesAreDropped() throws IOException {
+        Files.writeString(dir.resolve(FileManifest.FILE_NAME), String.join("\n",
+                "# text-processor manifest v1",
+                "12\t34\thash\tprint\tprocessed_a.txt\ta.txt",
+                "not a number\t34\thash\tprint\tprocessed_b.txt\tb.txt",
+                "too\tfew\tfields",
+                "",
+                "56\t78\thash\tprint\tprocessed_c.txt\tc.txt"));
+
+        FileManifest manifest = FileManifest.load(dir);
+
+        assertEquals(new FileManifest.Entry(12, 34, "hash", "print", "processed_a.txt"), manifest.previous("a.txt"));
+        assertNull(manifest.previous("b.txt"));
+        assertEquals(new FileManifest.Entry(56, 78, "hash", "print", "processed_c.txt"), manifest.previous("c.txt"));
+    }
+
+    @Test
+    void concurrentSavesLeaveOneWholeManifest() throws Exception {
+        ExecutorService savers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int s = 0; s < 4; s++) {
+                int saver = s;
+                futures.add(savers.submit(() -> {
+                    for (int round = 0; round < 50; round++) {
+                        FileManifest manifest = FileManifest.load(dir);
+                        for (int i = 0; i < 100; i++) {
+                            manifest.put("file" + i, entry(saver, "processed_file" + i));
+                        }
+                        manifest.save(true);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            savers.shutdownNow();
+        }
+
+        FileManifest loaded = FileManifest.load(dir);
+        long saver = loaded.previous("file0").size();
+        for (int i = 0; i < 100; i++) {
+            // All entries come from the same save
+            assertEquals(entry((int) saver, "processed_file" + i), loaded.previous("file" + i));
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(FileManifest.FILE_NAME), files.map(f -> f.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    void fingerprintCoversEverySetting() {
+        String base = FileManifest.fingerprint("\\d+", "#", false, "split 1/2");
+
+        assertEquals(base, FileManifest.fingerprint("\\d+", "#", false, "split 1/2"));
+        assertNotEquals(base, FileManifest.fingerprint("\\d", "#", false, "split 1/2"));
+        assertNotEquals(base, FileManifest.fingerprint("\\d+", "", false, "split 1/2"));
+        assertNotEquals(base, FileManifest.fingerprint("\\d+", "#", true, "split 1/2"));
+        assertNotEquals(base, FileManifest.fingerprint("\\d+", "#", false, "split 1/3"));
+        // The separators keep fields from running into each other
+        assertNotEquals(FileManifest.fingerprint("a", "b", false, ""), FileManifest.fingerprint("ab", "", false, ""));
+    }
+
+    private static FileManifest.Entry entry(int seed, String output) {
+        return new FileManifest.Entry(seed, 1000L + seed, "hash" + seed, "print", output);
+    }
+}
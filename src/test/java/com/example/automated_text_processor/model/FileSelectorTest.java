@@ -0,0 +1,157 @@
+package com.example.automated_text_processor.model;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class FileSelectorTest {
+    private static final Path ROOT = Path.of("/data/in");
+    private static final Instant NOW = Instant.parse("2024-05-10T12:00:00Z");
+
+    @Test
+    void defaultSelectsTextFilesPlainOrGzipped() {
+        FileSelector selector = FileSelector.DEFAULT;
+
+        assertTrue(selector.matchesPath(ROOT, ROOT.resolve("a.txt")));
+        assertTrue(selector.matchesPath(ROOT, ROOT.resolve("deep/er/a.txt")));
+        assertTrue(selector.matchesPath(ROOT, ROOT.resolve("a.txt.gz")));
+        assertTrue(selector.matchesPath(ROOT, ROOT.resolve(".hidden.txt")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("a.TXT")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("a.txt.bak")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("a.gz")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("a.zip")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("txt")));
+    }
+
+    @Test
+    void globWithoutSlashMatchesTheFileNameAtAnyDepth() {
+        FileSelector selector = FileSelector.builder().include("report-?.{csv,log}").build();
+
+        assertTrue(selector.matchesPath(ROOT, ROOT.resolve("report-1.csv")));
+        assertTrue(selector.matchesPath(ROOT, ROOT.resolve("2024/05/report-2.log")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("report-10.csv")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("report-1.txt")));
+    }
+
+    @Test
+    void globWithSlashMatchesTheRelativePath() {
+        FileSelector selector = FileSelector.builder().include("glob:logs/**").include("*/top.txt").build();
+
+        assertTrue(selector.matchesPath(ROOT, ROOT.resolve("logs/a.txt")));
+        assertTrue(selector.matchesPath(ROOT, ROOT.resolve("logs/2024/a.txt")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("other/logs/a.txt")));
+        // A single * does not cross directories
+        assertTrue(selector.matchesPath(ROOT, ROOT.resolve("x/top.txt")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("x/y/top.txt")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("top.txt")));
+    }
+
+    @Test
+    void regexMatchesTheRelativePath() {
+        FileSelector selector = FileSelector.builder().include("regex:(a|b)/[0-9]+\\.dat").build();
+
+        assertTrue(selector.matchesPath(ROOT, ROOT.resolve("a/12.dat")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("12.dat")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("c/a/12.dat")));
+    }
+
+    @Test
+    void excludesWinOverIncludes() {
+        FileSelector selector = FileSelector.builder()
+                .include("*.txt")
+                .exclude("draft-*")
+                .exclude("tmp/**")
+                .build();
+
+        assertTrue(selector.matchesPath(ROOT, ROOT.resolve("final.txt")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("sub/draft-1.txt")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("tmp/final.txt")));
+    }
+
+    @Test
+    void withoutIncludesEverythingNotExcludedIsSelected() {
+        FileSelector selector = FileSelector.builder().exclude("*.bak").build();
+
+        assertTrue(selector.matchesPath(ROOT, ROOT.resolve("anything")));
+        assertFalse(selector.matchesPath(ROOT, ROOT.resolve("a.bak")));
+    }
+
+    @Test
+    void sizeAndTimeLimitsApply() {
+        FileSelector selector = FileSelector.builder()
+                .maxSize(100)
+                .modifiedAfter(NOW.minusSeconds(60))
+                .modifiedBefore(NOW)
+                .build();
+        Path file = ROOT.resolve("a.txt");
+
+        assertTrue(selector.matches(ROOT, file, attributes(100, NOW.minusSeconds(60))));
+        assertFalse(selector.matches(ROOT, file, attributes(101, NOW.minusSeconds(30))));
+        assertFalse(selector.matches(ROOT, file, attributes(10, NOW.minusSeconds(61))));
+        // The upper bound is exclusive
+        assertFalse(selector.matches(ROOT, file, attributes(10, NOW)));
+    }
+
+    @Test
+    void invalidRulesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> FileSelector.builder().include("regex:["));
+        assertThrows(IllegalArgumentException.class, () -> FileSelector.builder().exclude("glob:{a,b"));
+        assertThrows(IllegalArgumentException.class, () -> FileSelector.builder().maxSize(-1));
+    }
+
+    private static BasicFileAttributes attributes(long size, Instant modified) {
+        FileTime time = FileTime.from(modified);
+        return new BasicFileAttributes() {
+            @Override
+            public FileTime lastModifiedTime() {
+                return time;
+            }
+
+            @Override
+            public FileTime lastAccessTime() {
+                return time;
+            }
+
+            @Override
+            public FileTime creationTime() {
+                return time;
+            }
+
+            @Override
+            public boolean isRegularFile() {
+                return true;
+            }
+
+            @Override
+            public boolean isDirectory() {
+                return false;
+            }
+
+            @Override
+            public boolean isSymbolicLink() {
+                return false;
+            }
+
+            @Override
+            public boolean isOther() {
+                return false;
+            }
+
+            @Override
+            public long size() {
+                return size;
+            }
+
+            @Override
+            public Object fileKey() {
+                return null;
+            }
+        };
+    }
+}
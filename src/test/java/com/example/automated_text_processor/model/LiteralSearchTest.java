@@ -0,0 +1,100 @@
+package com.example.automated_text_processor.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+class LiteralSearchTest {
+    // 'a' and 'š' (U+0161) share a low byte, and so an entry of the Horspool skip table
+    private static final String TEXT_ALPHABET = "aaabš.*\\QE- \n\uD83D\uDE00";
+    private static final String[] TOKENS = {
+            "a", "b", "š", " ", "\n",
+            "\\.", "\\*", "\\\\", "\\(", "\\[", "\\{", "\\|", "\\$", "\\^", "\\?", "\\+",
+            "\\-", "\\ ", "\\_", "\\<", "\\#",
+            "\\Q.*\\E", "\\Qa\\b\\E", "\\Q\\E", "\\QE\\E", "\\Q",
+            "\uD83D\uDE00", "\\Q\uD83D\\E", "\uDE00",
+            ".", "\\d", "\\w", "a*", "\\E", "\\", "(a)", "\\1",
+    };
+
+    @Test
+    void literalPatternsFindWhatTheRegexFinds() {
+        Random random = new Random(17);
+        int literals = 0;
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder regex = new StringBuilder();
+            int tokens = 1 + random.nextInt(3);
+            for (int t = 0; t < tokens; t++) {
+                regex.append(TOKENS[random.nextInt(TOKENS.length)]);
+            }
+            if (assertSameAsFind(regex.toString(), randomText(random))) {
+                literals++;
+            }
+        }
+        // Many patterns should have been literal, or the comparison proves little
+        assertTrue(literals > 5000, "only " + literals + " literal patterns");
+    }
+
+    @Test
+    void literalsAreDecoded() {
+        assertEquals("a.b", LiteralSearch.literalOf("a\\.b"));
+        assertEquals("a.b", LiteralSearch.literalOf("\\Qa.b\\E"));
+        assertEquals("a.b*", LiteralSearch.literalOf("\\Qa.b\\E\\*"));
+        assertEquals("x\\d", LiteralSearch.literalOf("\\Qx\\d"));
+        assertEquals("-_<", LiteralSearch.literalOf("\\-\\_\\<"));
+        assertEquals("é", LiteralSearch.literalOf("é"));
+    }
+
+    @Test
+    void patternsThatAreNotPlainLiteralsAreRejected() {
+        for (String regex : new String[]{"", "a.b", "a*", "\\d", "\\n", "\\1", "\\é", "\\", "\\Q\\E", "(?i)a",
+                "\uD83D\uDE00", "\\Q\uDE00\\E"}) {
+            assertNull(LiteralSearch.literalOf(regex), regex);
+        }
+    }
+
+    @Test
+    void matchesAreTheLiteralInstance() {
+        String literal = "ab";
+        for (CharSequence text : List.<CharSequence>of("abab", new StringBuilder("abab"))) {
+            List<String> matches = LiteralSearch.findAll(text, literal);
+            assertEquals(2, matches.size());
+            matches.forEach(match -> assertSame(literal, match));
+        }
+    }
+
+    /**
+     * Returns whether {@code regex} was taken as a literal.
+     */
+    private static boolean assertSameAsFind(String regex, String text) {
+        String literal = LiteralSearch.literalOf(regex);
+        if (literal == null) {
+            return false;
+        }
+        List<String> expected = new ArrayList<>();
+        Matcher matcher = Pattern.compile(regex).matcher(text);
+        while (matcher.find()) {
+            expected.add(matcher.group());
+        }
+        String message = "regex " + regex + ", text " + text.replace("\n", "\\n");
+        assertEquals(expected, LiteralSearch.findAll(text, literal), message);
+        assertEquals(expected, LiteralSearch.findAll(new StringBuilder(text), literal), message);
+        return true;
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(40);
+        for (int i = 0; i < length; i++) {
+            text.append(TEXT_ALPHABET.charAt(random.nextInt(TEXT_ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
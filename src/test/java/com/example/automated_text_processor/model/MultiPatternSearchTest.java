@@ -0,0 +1,119 @@
+package com.example.automated_text_processor.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.junit.jupiter.api.Test;
+
+class MultiPatternSearchTest {
+    // Literals that overlap each other and themselves, as the automaton must report them all
+    private static final String[] LITERALS = {"a", "ab", "aba", "abab", "b", "ba", "bab", "x", "a\\.b", "\\Q.*\\E"};
+    private static final String[] REGEXES = {"a+b", "b*", "(?<=a)b", "a|ab", "\\bab\\b", "a.b", "(?m)^b", "x?",
+            "[ab]{2}", "(?i)A"};
+
+    @Test
+    void literalSetsMatchFindPerPattern() {
+        Random random = new Random(31);
+        for (int i = 0; i < 1000; i++) {
+            assertSameAsFind(randomPatterns(random, 1 + random.nextInt(6), 0), randomText(random, 80));
+        }
+    }
+
+    @Test
+    void mixedSetsMatchFindPerPattern() {
+        Random random = new Random(37);
+        for (int i = 0; i < 1000; i++) {
+            int literals = random.nextInt(4);
+            int regexes = (literals == 0 ? 1 : 0) + random.nextInt(4);
+            assertSameAsFind(randomPatterns(random, literals, regexes), randomText(random, 80));
+        }
+    }
+
+    @Test
+    void largeTextsAreScannedInParallelWithTheSameMatches() {
+        assertTrue(ForkJoinPool.getCommonPoolParallelism() > 1, "the parallel path needs a parallel common pool");
+        Random random = new Random(41);
+        for (int size : new int[]{1 << 16, (1 << 16) + 7, 1 << 18}) {
+            String text = randomText(random, size, size);
+            assertSameAsFind(randomPatterns(random, 3, 4), text);
+            // Regexes only, and a single regex, which stays sequential
+            assertSameAsFind(randomPatterns(random, 0, 3), text);
+            assertSameAsFind(randomPatterns(random, 0, 1), text);
+        }
+    }
+
+    @Test
+    void matchesAtTheSamePositionFollowPatternOrder() {
+        Map<String, String> patterns = new LinkedHashMap<>();
+        patterns.put("long", "ab");
+        patterns.put("regex", "a+");
+        patterns.put("short", "a");
+
+        assertEquals(List.of(new TaggedMatch("long", 0, 2, "ab"), new TaggedMatch("regex", 0, 1, "a"),
+                        new TaggedMatch("short", 0, 1, "a")),
+                new MultiPatternSearch(patterns).search("ab"));
+    }
+
+    @Test
+    void invalidPatternIsRejected() {
+        assertThrows(PatternSyntaxException.class, () -> new MultiPatternSearch(Map.of("bad", "a(")));
+    }
+
+    private static void assertSameAsFind(Map<String, String> patterns, String text) {
+        record Expected(int order, TaggedMatch match) {
+        }
+        List<Expected> expected = new ArrayList<>();
+        int order = 0;
+        for (Map.Entry<String, String> entry : patterns.entrySet()) {
+            Matcher matcher = Pattern.compile(entry.getValue()).matcher(text);
+            while (matcher.find()) {
+                expected.add(new Expected(order,
+                        new TaggedMatch(entry.getKey(), matcher.start(), matcher.end(), matcher.group())));
+            }
+            order++;
+        }
+        expected.sort(Comparator.comparingInt((Expected e) -> e.match().start()).thenComparingInt(Expected::order));
+
+        List<TaggedMatch> actual = new MultiPatternSearch(patterns).search(text);
+        // Compared via size first, as the message of a large mismatch is not readable
+        assertEquals(expected.size(), actual.size(), () -> "patterns " + patterns + ", text length " + text.length()
+                + (text.length() < 200 ? ", text " + text.replace("\n", "\\n") : ""));
+        assertEquals(expected.stream().map(Expected::match).toList(), actual, () -> "patterns " + patterns);
+    }
+
+    private static Map<String, String> randomPatterns(Random random, int literals, int regexes) {
+        Map<String, String> patterns = new LinkedHashMap<>();
+        for (int i = 0; i < literals; i++) {
+            patterns.put("literal" + i, LITERALS[random.nextInt(LITERALS.length)]);
+        }
+        for (int i = 0; i < regexes; i++) {
+            patterns.put("regex" + i, REGEXES[random.nextInt(REGEXES.length)]);
+        }
+        return patterns;
+    }
+
+    private static String randomText(Random random, int maxLength) {
+        return randomText(random, 0, maxLength);
+    }
+
+    private static String randomText(Random random, int minLength, int maxLength) {
+        String alphabet = "aaabbbx.* \nA";
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.automated_text_processor.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelReplacerTest {
+    // Patterns whose matches never span a line break, with replacements valid for them
+    private static final String[][] LINE_CASES = {
+            {"a*", "<$0>"},
+            {"x*", "-"},
+            {"(?m)^", ">"},
+            {"(?m)$", "<"},
+            {"^", "["},
+            {"$", "]"},
+            {"(?m)^$", "(empty)"},
+            {"(?<=a)b", "B"},
+            {"(?<!a)b", "B"},
+            {"b(?=a)", "B"},
+            {"\\bab\\b", "AB"},
+            {"(a)(b)?", "$2$1"},
+            {"(?<first>a+)x", "${first}"},
+            {"a|ab", "\\$"},
+            {".*", "[$0]"},
+            {"(?m)^a.*$", "line"},
+            {"é+", "e"},
+    };
+    // Patterns that may match across lines, with their longest match
+    private static final Object[][] BOUNDED_CASES = {
+            {"a\nb", 3, "<$0>"},
+            {"(?s)a.b", 3, "$0$0"},
+            {"\n\n", 2, "\n"},
+            {"(?<=\n)a", 1, "A"},
+            {"(b)(\n)?", 2, "$2$1"},
+            {"(?m)a$", 1, "A"},
+    };
+
+    private final int threshold = ParallelReplacer.getParallelThreshold();
+
+    @AfterEach
+    void restoreThreshold() {
+        ParallelReplacer.setParallelThreshold(threshold);
+    }
+
+    @Test
+    void segmentsAtLineBreaksMatchReplaceAll() {
+        Random random = new Random(23);
+        for (int i = 0; i < 2000; i++) {
+            String[] testCase = LINE_CASES[random.nextInt(LINE_CASES.length)];
+            assertSameAsReplaceAll(randomText(random), testCase[0], testCase[1], -1, 1 + random.nextInt(12));
+        }
+    }
+
+    @Test
+    void boundedSegmentsMatchReplaceAll() {
+        Random random = new Random(5);
+        for (int i = 0; i < 2000; i++) {
+            String[] lineCase = LINE_CASES[random.nextInt(LINE_CASES.length)];
+            Object[] boundedCase = BOUNDED_CASES[random.nextInt(BOUNDED_CASES.length)];
+            String text = randomText(random);
+            int segmentSize = 1 + random.nextInt(12);
+            assertSameAsReplaceAll(text, (String) boundedCase[0], (String) boundedCase[2], (int) boundedCase[1],
+                    segmentSize);
+            // A pattern's line length bounds its matches too
+            int longestLine = 0;
+            for (String line : text.split("\n", -1)) {
+                longestLine = Math.max(longestLine, line.length());
+            }
+            if (!lineCase[0].contains("^") && !lineCase[0].contains("$")) {
+                assertSameAsReplaceAll(text, lineCase[0], lineCase[1], longestLine, segmentSize);
+            }
+        }
+    }
+
+    @Test
+    void previousMatchAnchorIsReplacedSequentially() {
+        assertSameAsReplaceAll("aaab\naa\nab", "\\Ga", "x", -1, 1);
+    }
+
+    @Test
+    void emptyTextMatchesReplaceAll() {
+        assertSameAsReplaceAll("", "x*", "-", -1, 1);
+    }
+
+    @Test
+    void largeTextIsSplitThroughTextProcessor() {
+        ParallelReplacer.setParallelThreshold(1024);
+        Random random = new Random(11);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 3_000_000) {
+            text.append(randomText(random)).append('\n');
+        }
+        String content = text.toString();
+        for (String[] testCase : LINE_CASES) {
+            assertEquals(Pattern.compile(testCase[0]).matcher(content).replaceAll(testCase[1]),
+                    TextProcessor.replaceWithRegexParallel(content, testCase[0], testCase[1], -1), testCase[0]);
+        }
+    }
+
+    private static void assertSameAsReplaceAll(String text, String regex, String replacement, int maxMatchLength,
+                                               int segmentSize) {
+        Pattern pattern = Pattern.compile(regex);
+        assertEquals(pattern.matcher(text).replaceAll(replacement),
+                ParallelReplacer.replace(text, pattern, replacement, maxMatchLength, segmentSize),
+                () -> "pattern " + regex + ", max length " + maxMatchLength + ", segment size " + segmentSize
+                        + ", text " + text.replace("\n", "\\n"));
+    }
+
+    private static String randomText(Random random) {
+        String alphabet = "aaabbx é\n\n";
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(60);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.automated_text_processor.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SplitFileProcessorTest {
+    private static final String[] PATTERNS = {
+            "x*", "a*x?", "(?m)$", "(?m)^", "(?m)^$", "a+", "\\w+", "é+", "\\bx\\b", "(?m)a$"
+    };
+
+    @TempDir
+    Path dir;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void shutDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void splitOutputMatchesWholeFile() throws IOException {
+        Random random = new Random(42);
+        Path file = dir.resolve("input.txt");
+        for (int i = 0; i < 300; i++) {
+            String text = randomText(random);
+            Files.writeString(file, text);
+            String pattern = PATTERNS[random.nextInt(PATTERNS.length)];
+            String replacement = random.nextBoolean() ? "<$0>" : null;
+            int rangeSize = 1 + random.nextInt(16);
+
+            StringBuilder expected = new StringBuilder();
+            long expectedMatches = BatchProcessor.transform(text, pattern, replacement, expected);
+            StringWriter actual = new StringWriter();
+            long actualMatches = new SplitFileProcessor(pattern, replacement, rangeSize, pool)
+                    .process(file, null, actual);
+
+            String context = "pattern " + pattern + ", replacement " + replacement + ", range size "
+                    + rangeSize + ", text " + text.replace("\n", "\\n");
+            assertEquals(expected.toString(), actual.toString(), context);
+            assertEquals(expectedMatches, actualMatches, context);
+        }
+    }
+
+    @Test
+    void digestCoversWholeFile() throws IOException, NoSuchAlgorithmException {
+        byte[] bytes = "first line\nsecond line é\n\nlast".getBytes(StandardCharsets.UTF_8);
+        Path file = dir.resolve("input.txt");
+        Files.write(file, bytes);
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        new SplitFileProcessor("\\w+", "#", 4, pool).process(file, digest, new StringWriter());
+
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(bytes), digest.digest());
+    }
+
+    private static String randomText(Random random) {
+        String alphabet = "aaxx é\n\n";
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(80);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.automated_text_processor.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+class StreamingRegexProcessorTest {
+    private static final String[] PATTERNS = {
+            "a*", "x*", "a{1,3}", "ab|ba", "(?m)^", "(?m)$", "(?m)^a", "(?m)b$", "\\bx\\b",
+            "(?<=a)b", "(?<!a)b", "b(?=a)", "a\nb", "(a)(b)?", "\\w+", "é+"
+    };
+    private static final int OVERLAP = 8;
+
+    @Test
+    void chunkedOutputMatchesWholeText() throws IOException {
+        Random random = new Random(6);
+        for (int i = 0; i < 3000; i++) {
+            String text = randomText(random);
+            String regex = PATTERNS[random.nextInt(PATTERNS.length)];
+            String replacement = random.nextBoolean() ? "<$0>" : null;
+            int chunkSize = 1 + random.nextInt(10);
+
+            StringBuilder expected = new StringBuilder();
+            long expectedMatches = transform(text, regex, replacement, expected);
+            StringWriter actual = new StringWriter();
+            long actualMatches = new StreamingRegexProcessor(Pattern.compile(regex), replacement, chunkSize, OVERLAP)
+                    .process(new ShortReader(text, random), actual);
+
+            String context = "pattern " + regex + ", replacement " + replacement + ", chunk size " + chunkSize
+                    + ", text " + text.replace("\n", "\\n");
+            assertEquals(expected.toString(), actual.toString(), context);
+            assertEquals(expectedMatches, actualMatches, context);
+        }
+    }
+
+    @Test
+    void groupReferencesAreExpanded() throws IOException {
+        StringWriter out = new StringWriter();
+        long matches = new StreamingRegexProcessor(Pattern.compile("(?<key>\\w+)=(\\d+)"), "$2:${key}", 3, 8)
+                .process(new StringReader("a=1, bb=22\ncc=3"), out);
+
+        assertEquals("1:a, 22:bb\n3:cc", out.toString());
+        assertEquals(3, matches);
+    }
+
+    private static String randomText(Random random) {
+        // Words no longer than the overlap, so every match fits in it
+        String alphabet = "aabx é\n";
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(60);
+        int word = 0;
+        for (int i = 0; i < length; i++) {
+            char c = alphabet.charAt(random.nextInt(alphabet.length()));
+            word = Character.isLetter(c) ? word + 1 : 0;
+            if (word > OVERLAP) {
+                c = ' ';
+                word = 0;
+            }
+            text.append(c);
+        }
+        return text.toString();
+    }
+
+    /**
+     * The whole-text result: the replaced text, or the matches one per line.
+     */
+    private static long transform(String text, String regex, String replacement, StringBuilder out) {
+        Matcher matcher = Pattern.compile(regex).matcher(text);
+        long matches = 0;
+        while (matcher.find()) {
+            if (replacement != null) {
+                matcher.appendReplacement(out, replacement);
+            } else {
+                if (matches > 0) {
+                    out.append('\n');
+                }
+                out.append(matcher.group());
+            }
+            matches++;
+        }
+        if (replacement != null) {
+            matcher.appendTail(out);
+        }
+        return matches;
+    }
+
+    /**
+     * Returns fewer characters than asked for, as readers over files and sockets may.
+     */
+    private static final class ShortReader extends Reader {
+        private final Reader in;
+        private final Random random;
+
+        ShortReader(String text, Random random) {
+            this.in = new StringReader(text);
+            this.random = random;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            return in.read(buffer, offset, length == 0 ? 0 : 1 + random.nextInt(length));
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.automated_text_processor.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TextProcessorTest {
+
+    @Test
+    void analysisHoldsLinesAndWordFrequency() {
+        TextAnalysis analysis = TextProcessor.analyze(new StringBuilder("The cat\nthe hat"));
+
+        assertEquals("The cat\nthe hat", analysis.text());
+        assertEquals(List.of("The cat", "the hat"), analysis.lines());
+        assertEquals(Map.of("the", 2, "cat", 1, "hat", 1), analysis.wordFrequency());
+        assertEquals(List.of("cat", "hat"), analysis.searchWithRegex("\\w(?=at)at"));
+        assertEquals("The dog\nthe hat", analysis.replaceWithRegex("cat", "dog"));
+    }
+
+    @Test
+    void analysisCannotBeModified() {
+        TextAnalysis analysis = TextProcessor.analyze("a b");
+
+        assertThrows(UnsupportedOperationException.class, () -> analysis.lines().add("c"));
+        assertThrows(UnsupportedOperationException.class, () -> analysis.wordFrequency().put("c", 1));
+    }
+
+    @Test
+    void analysisIsKeptUntilTheTextChanges() {
+        TextProcessor processor = new TextProcessor();
+        assertTrue(processor.analyze().wordFrequency().isEmpty());
+
+        processor.setText("one two two");
+        TextAnalysis first = processor.analyze();
+        assertSame(first, processor.analyze());
+        assertEquals(Map.of("one", 1, "two", 2), processor.getWordFrequency());
+
+        processor.setText("three");
+        assertEquals(Map.of("three", 1), processor.analyze().wordFrequency());
+        assertEquals(List.of("three"), processor.getProcessedLines());
+    }
+
+    @Test
+    void concurrentReadersNeverSeeAnotherTextsAnalysis() throws Exception {
+        TextProcessor processor = new TextProcessor();
+        processor.setText("start");
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int r = 0; r < 4; r++) {
+                futures.add(readers.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        TextAnalysis analysis = processor.analyze();
+                        String word = analysis.text().split(" ")[0];
+                        assertEquals(analysis.text().split(" ").length, analysis.wordFrequency().get(word));
+                    }
+                }));
+            }
+            for (int i = 0; i < 20_000; i++) {
+                processor.setText(("w" + i + " ").repeat(1 + i % 5).trim());
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            readers.shutdownNow();
+            readers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
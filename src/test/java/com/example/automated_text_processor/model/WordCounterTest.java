@@ -0,0 +1,107 @@
+package com.example.automated_text_processor.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class WordCounterTest {
+    // ASCII, letters that lowercase to ASCII or to i with combining marks, and other scripts
+    private static final String ALPHABET = "aAbBiI_09 ,.\nKİı̇ÌÍĨéÉ中";
+
+    private final Locale locale = Locale.getDefault();
+
+    @AfterEach
+    void restoreLocale() {
+        Locale.setDefault(locale);
+    }
+
+    @Test
+    void countsMatchRegexSplit() {
+        Random random = new Random(4);
+        for (int i = 0; i < 2000; i++) {
+            String text = randomText(random, 80);
+            assertEquals(regexSplitCounts(text), WordCounter.count(text, 0, text.length()).toMap(), text);
+        }
+    }
+
+    @Test
+    void countsMatchRegexSplitInLocalesWithSpecialLowercasing() {
+        Random random = new Random(8);
+        for (String language : new String[] {"tr", "az", "lt", "en"}) {
+            Locale.setDefault(Locale.forLanguageTag(language));
+            for (int i = 0; i < 500; i++) {
+                String text = randomText(random, 80);
+                assertEquals(regexSplitCounts(text), WordCounter.count(text, 0, text.length()).toMap(),
+                        language + ": " + text);
+            }
+        }
+    }
+
+    @Test
+    void chunkedCountsMatchSequentialCounts() {
+        Random random = new Random(15);
+        for (String language : new String[] {"tr", "lt", "en"}) {
+            Locale.setDefault(Locale.forLanguageTag(language));
+            for (int i = 0; i < 500; i++) {
+                String text = randomText(random, 400);
+                int chunkSize = 1 + random.nextInt(20);
+                assertEquals(regexSplitCounts(text), WordCounter.countInChunks(text, chunkSize).toMap(),
+                        language + ", chunk size " + chunkSize + ": " + text);
+            }
+        }
+    }
+
+    @Test
+    void largeTextIsCountedInParallelThroughTextProcessor() {
+        int threshold = TextProcessor.getParallelWordCountThreshold();
+        try {
+            TextProcessor.setParallelWordCountThreshold(1024);
+            Random random = new Random(16);
+            StringBuilder text = new StringBuilder();
+            while (text.length() < 3_000_000) {
+                text.append(randomText(random, 400)).append(' ');
+            }
+            TextProcessor textProcessor = new TextProcessor();
+            textProcessor.setText(text.toString());
+
+            assertEquals(WordCounter.count(text, 0, text.length()).toMap(), textProcessor.getWordFrequency());
+        } finally {
+            TextProcessor.setParallelWordCountThreshold(threshold);
+        }
+    }
+
+    @Test
+    void tableGrowsPastManyDistinctWords() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            text.append("word").append(i % 50_000).append(' ');
+        }
+        Map<String, Integer> counts = WordCounter.count(text, 0, text.length()).toMap();
+
+        assertEquals(50_000, counts.size());
+        assertEquals(2, counts.get("word49999"));
+    }
+
+    static Map<String, Integer> regexSplitCounts(String text) {
+        Map<String, Integer> frequency = new HashMap<>();
+        Arrays.stream(text.toLowerCase().split("\\W+"))
+              .filter(word -> !word.isEmpty())
+              .forEach(word -> frequency.merge(word, 1, Integer::sum));
+        return frequency;
+    }
+
+    static String randomText(Random random, int maxLength) {
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(maxLength);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
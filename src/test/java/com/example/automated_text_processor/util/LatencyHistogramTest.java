@@ -0,0 +1,106 @@
+package com.example.automated_text_processor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesHaveTheirOwnBuckets() {
+        for (int value = 0; value < 128; value++) {
+            assertEquals(value, LatencyHistogram.bucketIndex(value));
+            assertEquals(value, LatencyHistogram.bucketUpperBound(value));
+        }
+    }
+
+    @Test
+    void bucketsAreContiguous() {
+        // Each bucket ends just before the next one starts, up to the largest long
+        int index = 0;
+        while (LatencyHistogram.bucketUpperBound(index) != Long.MAX_VALUE) {
+            long upper = LatencyHistogram.bucketUpperBound(index);
+            assertEquals(index, LatencyHistogram.bucketIndex(upper), "upper bound of " + index);
+            assertEquals(index + 1, LatencyHistogram.bucketIndex(upper + 1), "after bucket " + index);
+            index++;
+        }
+        assertEquals(index, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    void bucketBoundIsWithinRelativeErrorOfTheValue() {
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            long upper = LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value));
+            assertTrue(upper >= value, value + " above its bucket's bound " + upper);
+            assertTrue(upper - value <= value / 64.0, value + " rounds up to " + upper);
+        }
+    }
+
+    @Test
+    void percentilesMatchTheSortedValues() {
+        Random random = new Random(12);
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        long[] values = new long[50_000];
+        for (int i = 0; i < values.length; i++) {
+            // Log-uniform from 1us to about 1s, like real latencies
+            values[i] = (long) (1000 * Math.pow(10, random.nextDouble() * 6));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[] {1, 10, 50, 90, 99, 99.9, 100}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(reported >= exact && reported - exact <= exact / 64.0,
+                    "p" + percentile + ": " + reported + " for " + exact);
+        }
+        assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100));
+        assertEquals(values[values.length - 1], histogram.getMax());
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(Arrays.stream(values).average().orElseThrow(), histogram.getMean(), 1e-6);
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram("empty");
+
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(0.0, histogram.getMean(), 0);
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void negativeDurationsCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram("clock");
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void concurrentRecordingLosesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram("concurrent");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 1; i <= 100_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(400_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000.5, histogram.getMean(), 1e-9);
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.automated_text_processor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LogManagerTest {
+    private static final Pattern TAG = Pattern.compile("\\[(\\w+)] entry-(\\d+)-(\\d+)$");
+
+    @TempDir
+    Path dir;
+
+    private final List<LogManager> loggers = new ArrayList<>();
+
+    @AfterEach
+    void shutDown() {
+        loggers.forEach(LogManager::shutdown);
+    }
+
+    @Test
+    void concurrentProducersWriteEveryEntryOnce() throws Exception {
+        LogManager logger = logger(16, LogManager.OverflowPolicy.BLOCK);
+
+        log(logger, 4, 5000, null);
+        logger.shutdown();
+
+        assertWrittenOnce(4, 5000, readEntries());
+        assertEquals(0, logger.getDroppedEntries());
+    }
+
+    @Test
+    void entriesLoggedDuringShutdownAreKept() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            Path roundDir = Files.createDirectory(dir.resolve("round" + round));
+            LogManager logger = logger(roundDir, 8, LogManager.OverflowPolicy.BLOCK);
+
+            log(logger, 4, 500, logger::shutdown);
+
+            assertWrittenOnce(4, 500, readEntries(roundDir));
+        }
+    }
+
+    @Test
+    void droppedEntriesAreCountedAndReported() throws Exception {
+        LogManager logger = logger(2, LogManager.OverflowPolicy.DROP);
+
+        log(logger, 4, 5000, null);
+        logger.shutdown();
+
+        Map<String, Integer> entries = readEntries();
+        long written = entries.values().stream().mapToInt(Integer::intValue).sum();
+        entries.values().forEach(count -> assertEquals(1, count));
+        assertEquals(4 * 5000, written + logger.getDroppedEntries());
+        if (logger.getDroppedEntries() > 0) {
+            assertTrue(readLog().contains("log entries dropped because the log buffer was full"));
+        }
+    }
+
+    @Test
+    void dropBelowLevelKeepsEntriesAtTheLevel() throws Exception {
+        LogManager logger = logger(2, LogManager.OverflowPolicy.BLOCK);
+        logger.setOverflowPolicy(LogManager.OverflowPolicy.DROP_BELOW_LEVEL, LogManager.Level.INFO);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    if (producer % 2 == 0) {
+                        logger.logInfo("entry-" + producer + "-" + i);
+                    } else {
+                        logger.logMetrics("entry-" + producer + "-" + i);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        logger.shutdown();
+
+        Map<String, Integer> entries = readEntries();
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(1, entries.get("INFO 0-" + i));
+            assertEquals(1, entries.get("INFO 2-" + i));
+        }
+        long metrics = entries.keySet().stream().filter(key -> key.startsWith("METRICS")).count();
+        assertEquals(2 * 2000, metrics + logger.getDroppedEntries());
+    }
+
+    @Test
+    void flushWritesEveryEarlierEntry() throws Exception {
+        LogManager logger = logger(16, LogManager.OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 1000; i++) {
+            logger.logInfo("entry-0-" + i);
+        }
+        logger.flush();
+
+        // Still running, so only the flush can have written them
+        assertWrittenOnce(1, 1000, readEntries());
+    }
+
+    @Test
+    void flushAfterShutdownReturns() throws Exception {
+        LogManager logger = logger(16, LogManager.OverflowPolicy.BLOCK);
+        logger.shutdown();
+
+        logger.flush();
+        logger.logInfo("entry-0-0");
+
+        assertWrittenOnce(1, 1, readEntries());
+    }
+
+    @Test
+    void unknownOverflowPolicyFallsBackToBlock() {
+        String previous = System.getProperty(LogManager.OVERFLOW_POLICY_PROPERTY);
+        try {
+            System.setProperty(LogManager.OVERFLOW_POLICY_PROPERTY, "SOMETIMES");
+            assertEquals(LogManager.OverflowPolicy.BLOCK, LogManager.configuredOverflowPolicy());
+            System.setProperty(LogManager.OVERFLOW_POLICY_PROPERTY, "drop");
+            assertEquals(LogManager.OverflowPolicy.DROP, LogManager.configuredOverflowPolicy());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(LogManager.OVERFLOW_POLICY_PROPERTY);
+            } else {
+                System.setProperty(LogManager.OVERFLOW_POLICY_PROPERTY, previous);
+            }
+        }
+    }
+
+    @Test
+    void entriesFromANewDayGoToANewFile() throws Exception {
+        ZoneId zone = ZoneId.systemDefault();
+        AtomicLong now = new AtomicLong(
+                LocalDate.of(2024, 5, 9).atTime(23, 59, 59).atZone(zone).toInstant().toEpochMilli());
+        LogManager logger = new LogManager(dir, Long.MAX_VALUE, 16, LogManager.OverflowPolicy.BLOCK, now::get);
+        loggers.add(logger);
+
+        for (int i = 0; i < 10; i++) {
+            logger.logInfo("entry-0-" + i);
+        }
+        now.set(LocalDate.of(2024, 5, 10).atStartOfDay(zone).toInstant().toEpochMilli() + 1);
+        for (int i = 10; i < 20; i++) {
+            logger.logInfo("entry-0-" + i);
+        }
+        logger.shutdown();
+
+        assertEquals(List.of("text_processor_2024-05-09.log", "text_processor_2024-05-10.log"), logFiles());
+        assertEquals(range(0, 10), readTags(dir.resolve("text_processor_2024-05-09.log")));
+        assertEquals(range(10, 20), readTags(dir.resolve("text_processor_2024-05-10.log")));
+    }
+
+    @Test
+    void fullFilesAreArchivedInOrder() throws Exception {
+        long maxFileSize = 300;
+        AtomicLong now = new AtomicLong(LocalDate.of(2024, 5, 9).atTime(12, 0)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        LogManager logger = new LogManager(dir, maxFileSize, 16, LogManager.OverflowPolicy.BLOCK, now::get);
+        loggers.add(logger);
+
+        for (int i = 0; i < 100; i++) {
+            logger.logInfo("entry-0-" + i);
+        }
+        logger.shutdown();
+
+        List<String> files = logFiles();
+        assertTrue(files.size() > 5, files.toString());
+        List<String> tags = new ArrayList<>();
+        for (int index = 1; index < files.size(); index++) {
+            Path archive = dir.resolve("text_processor_2024-05-09." + index + ".log");
+            assertTrue(Files.size(archive) <= maxFileSize, archive + " has " + Files.size(archive) + " bytes");
+            tags.addAll(readTags(archive));
+        }
+        Path current = dir.resolve("text_processor_2024-05-09.log");
+        assertTrue(Files.size(current) <= maxFileSize);
+        tags.addAll(readTags(current));
+        assertEquals(range(0, 100), tags);
+    }
+
+    private LogManager logger(int capacity, LogManager.OverflowPolicy policy) {
+        return logger(dir, capacity, policy);
+    }
+
+    private LogManager logger(Path logDir, int capacity, LogManager.OverflowPolicy policy) {
+        LogManager logger = new LogManager(logDir, Long.MAX_VALUE, capacity, policy, System::currentTimeMillis);
+        loggers.add(logger);
+        return logger;
+    }
+
+    /**
+     * Logs {@code perProducer} entries from each of {@code producers} threads, running
+     * {@code midway} on another thread once every producer is under way.
+     */
+    private static void log(LogManager logger, int producers, int perProducer, Runnable midway)
+            throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(producers);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (i == perProducer / 4) {
+                        started.countDown();
+                    }
+                    logger.logInfo("entry-" + producer + "-" + i);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        if (midway != null) {
+            started.await();
+            Thread thread = new Thread(midway);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static void assertWrittenOnce(int producers, int perProducer, Map<String, Integer> entries) {
+        assertEquals(producers * perProducer, entries.size());
+        for (int p = 0; p < producers; p++) {
+            for (int i = 0; i < perProducer; i++) {
+                assertEquals(1, entries.get("INFO " + p + "-" + i), "entry-" + p + "-" + i);
+            }
+        }
+    }
+
+    private List<String> logFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static List<String> readTags(Path file) throws IOException {
+        List<String> tags = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            Matcher matcher = TAG.matcher(line);
+            if (matcher.find()) {
+                tags.add(matcher.group(3));
+            }
+        }
+        return tags;
+    }
+
+    private static List<String> range(int from, int to) {
+        List<String> tags = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            tags.add(String.valueOf(i));
+        }
+        return tags;
+    }
+
+    private Map<String, Integer> readEntries() throws IOException {
+        return readEntries(dir);
+    }
+
+    /**
+     * Counts each tagged entry in every log file under {@code logDir}, keyed by level
+     * and tag.
+     */
+    private static Map<String, Integer> readEntries(Path logDir) throws IOException {
+        Map<String, Integer> entries = new HashMap<>();
+        try (Stream<Path> files = Files.list(logDir)) {
+            for (Path file : files.toList()) {
+                for (String line : Files.readAllLines(file)) {
+                    Matcher matcher = TAG.matcher(line);
+                    if (matcher.find()) {
+                        entries.merge(matcher.group(1) + " " + matcher.group(2) + "-" + matcher.group(3), 1,
+                                Integer::sum);
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    private String readLog() throws IOException {
+        StringBuilder log = new StringBuilder();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                log.append(Files.readString(file));
+            }
+        }
+        return log.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.automated_text_processor.util;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.function.LongSupplier;
+import org.junit.jupiter.api.Test;
+
+class MetricsRegistryTest {
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+    @Test
+    void removeGaugeRemovesTheRegisteredSupplier() {
+        LongSupplier depth = () -> 3;
+        metrics.gauge("test.depth", depth);
+        assertSame(depth, metrics.getGauge("test.depth"));
+
+        metrics.removeGauge("test.depth", depth);
+
+        assertNull(metrics.getGauge("test.depth"));
+    }
+
+    @Test
+    void removeGaugeKeepsAReplacement() {
+        LongSupplier first = () -> 1;
+        LongSupplier second = () -> 2;
+        metrics.gauge("test.replaced", first);
+        metrics.gauge("test.replaced", second);
+
+        // The owner of the first gauge closing must not remove the second
+        metrics.removeGauge("test.replaced", first);
+
+        assertSame(second, metrics.getGauge("test.replaced"));
+        metrics.removeGauge("test.replaced", second);
+        assertNull(metrics.getGauge("test.replaced"));
+    }
+
+    @Test
+    void histogramsAreSharedByName() {
+        assertSame(metrics.histogram("test.latency"), metrics.histogram("test.latency"));
+    }
+}
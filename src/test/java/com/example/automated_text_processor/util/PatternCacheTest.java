@@ -0,0 +1,90 @@
+package com.example.automated_text_processor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+class PatternCacheTest {
+
+    @Test
+    void leastRecentlyUsedPatternIsEvicted() {
+        PatternCache cache = new PatternCache(2);
+        Pattern a = cache.get("a");
+        cache.get("b");
+        // Touching a makes b the eldest
+        assertSame(a, cache.get("a"));
+        cache.get("c");
+
+        assertEquals(2, cache.size());
+        assertSame(a, cache.get("a"));
+        assertEquals(3, cache.getMissCount());
+        cache.get("b");
+        assertEquals(4, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    void flagsAreSeparateKeys() {
+        PatternCache cache = new PatternCache(4);
+        Pattern plain = cache.get("abc");
+        Pattern insensitive = cache.get("abc", Pattern.CASE_INSENSITIVE);
+
+        assertNotSame(plain, insensitive);
+        assertEquals(0, plain.flags());
+        assertEquals(Pattern.CASE_INSENSITIVE, insensitive.flags());
+        assertSame(plain, cache.get("abc", 0));
+        assertSame(insensitive, cache.get("abc", Pattern.CASE_INSENSITIVE));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void concurrentMissesShareOnePattern() throws Exception {
+        PatternCache cache = new PatternCache(4);
+        int threads = 8;
+        int lookups = 1000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<Pattern>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    List<Pattern> seen = new ArrayList<>();
+                    for (int i = 0; i < lookups; i++) {
+                        seen.add(cache.get("(\\w+)@(\\w+)"));
+                    }
+                    return seen;
+                }));
+            }
+            start.countDown();
+
+            Pattern first = futures.get(0).get().get(0);
+            for (Future<List<Pattern>> future : futures) {
+                for (Pattern pattern : future.get()) {
+                    assertSame(first, pattern);
+                }
+            }
+            assertEquals(1, cache.size());
+            assertEquals(threads * lookups, cache.getHitCount() + cache.getMissCount());
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new PatternCache(0));
+    }
+}